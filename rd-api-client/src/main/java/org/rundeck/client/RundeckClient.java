@@ -17,9 +17,12 @@
 package org.rundeck.client;
 
 import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.JavaNetCookieJar;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.logging.HttpLoggingInterceptor;
 import org.rundeck.client.api.RundeckApi;
 import org.rundeck.client.util.*;
@@ -27,12 +30,18 @@ import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 import retrofit2.converter.jaxb.JaxbConverterFactory;
 
+import java.io.File;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -57,6 +66,75 @@ public class RundeckClient {
     public static final String ENV_HTTP_CONN_TIMEOUT = "RD_HTTP_CONN_TIMEOUT";
     public static final String ENV_HTTP_CALL_TIMEOUT = "RD_HTTP_CALL_TIMEOUT";
     public static final String ENV_CONNECT_RETRY = "RD_CONNECT_RETRY";
+    /**
+     * Max idle connections kept in the connection pool
+     */
+    public static final String ENV_HTTP_POOL_MAX_IDLE = "RD_HTTP_POOL_MAX_IDLE";
+    /**
+     * Keep alive time for idle connections in the connection pool, in seconds
+     */
+    public static final String ENV_HTTP_POOL_KEEP_ALIVE = "RD_HTTP_POOL_KEEP_ALIVE";
+    /**
+     * Max concurrent asynchronous requests
+     */
+    public static final String ENV_HTTP_MAX_REQUESTS = "RD_HTTP_MAX_REQUESTS";
+    /**
+     * Max concurrent asynchronous requests per host
+     */
+    public static final String ENV_HTTP_MAX_REQUESTS_PER_HOST = "RD_HTTP_MAX_REQUESTS_PER_HOST";
+    /**
+     * If false, use HTTP/1.1 only, otherwise prefer HTTP/2 when the server supports it
+     */
+    public static final String ENV_HTTP2 = "RD_HTTP2";
+    /**
+     * Max requests per second to the base URL, may be fractional
+     */
+    public static final String ENV_HTTP_MAX_RPS = "RD_HTTP_MAX_RPS";
+    /**
+     * Max requests in flight to the base URL
+     */
+    public static final String ENV_HTTP_MAX_CONCURRENT = "RD_HTTP_MAX_CONCURRENT";
+    /**
+     * Max retries for idempotent requests after a transient failure, default 0
+     */
+    public static final String ENV_HTTP_RETRY = "RD_HTTP_RETRY";
+    /**
+     * Delay before the first retry in milliseconds, doubled for each further retry
+     */
+    public static final String ENV_HTTP_RETRY_DELAY = "RD_HTTP_RETRY_DELAY";
+    /**
+     * Max delay between retries in milliseconds
+     */
+    public static final String ENV_HTTP_RETRY_MAX_DELAY = "RD_HTTP_RETRY_MAX_DELAY";
+    /**
+     * Max total time for a call including retries, in seconds
+     */
+    public static final String ENV_HTTP_RETRY_TIME = "RD_HTTP_RETRY_TIME";
+    /**
+     * Directory for the HTTP response cache, the cache is only used if set
+     */
+    public static final String ENV_HTTP_CACHE_DIR = "RD_HTTP_CACHE_DIR";
+    /**
+     * Max size of the HTTP response cache in MB
+     */
+    public static final String ENV_HTTP_CACHE_SIZE = "RD_HTTP_CACHE_SIZE";
+    /**
+     * Freshness in seconds for all cacheable endpoints, instead of the default for each endpoint
+     */
+    public static final String ENV_HTTP_CACHE_MAX_AGE = "RD_HTTP_CACHE_MAX_AGE";
+    /**
+     * If true, do not use cached responses without revalidating them
+     */
+    public static final String ENV_HTTP_CACHE_BYPASS = "RD_HTTP_CACHE_BYPASS";
+    /**
+     * Report HTTP call timing metrics: "table" or "json". The application collecting the metrics writes the report,
+     * see {@link Builder#metrics(HttpMetrics)}
+     */
+    public static final String ENV_HTTP_METRICS = "RD_HTTP_METRICS";
+    /**
+     * Directory for encrypted session files for password authentication, sessions are only stored if set
+     */
+    public static final String ENV_SESSION_DIR = "RD_SESSION_DIR";
     /**
      * If true, allow API version to be automatically degraded when unsupported version is detected
      */
@@ -64,6 +142,14 @@ public class RundeckClient {
     public static final int INSECURE_SSL_LOGGING = 2;
     public static final long DEFAULT_READ_TIMEOUT_SECONDS = 10 * 60L;
     public static final long DEFAULT_CONN_TIMEOUT_SECONDS = 2 * 60L;
+    public static final int DEFAULT_POOL_MAX_IDLE = 5;
+    public static final long DEFAULT_POOL_KEEP_ALIVE_SECONDS = 5 * 60L;
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500L;
+    public static final long DEFAULT_RETRY_MAX_DELAY_MILLIS = 30 * 1000L;
+    public static final long DEFAULT_RETRY_TIME_SECONDS = 5 * 60L;
+    public static final long DEFAULT_CACHE_SIZE_MB = 50L;
+
+    private static final Map<File, Cache> HTTP_CACHES = new ConcurrentHashMap<>();
 
     private RundeckClient() {
     }
@@ -79,6 +165,29 @@ public class RundeckClient {
         Integer apiVersion;
         boolean allowVersionDowngrade;
         Client.Logger logger;
+        boolean sharedConnectionPool;
+        Integer poolMaxIdle;
+        Long poolKeepAlive;
+        boolean sharedDispatcher;
+        Integer maxRequests;
+        Integer maxRequestsPerHost;
+        Double maxRps;
+        Integer maxConcurrent;
+        int maxRetries;
+        long retryDelay = DEFAULT_RETRY_DELAY_MILLIS;
+        long retryMaxDelay = DEFAULT_RETRY_MAX_DELAY_MILLIS;
+        long retryTime = DEFAULT_RETRY_TIME_SECONDS;
+        File cacheDir;
+        long cacheSize = DEFAULT_CACHE_SIZE_MB * 1024 * 1024;
+        Long cacheMaxAge;
+        boolean cacheBypass;
+        String authIdentity;
+        File sessionDir;
+        FormAuthInterceptor formAuth;
+        HttpMetrics metrics;
+        Tracer tracer;
+        String formAuthUser;
+        String formAuthPassword;
         private String userAgent = USER_AGENT;
         private final Class<A> api;
 
@@ -105,6 +214,33 @@ public class RundeckClient {
             insecureSSLHostname(config.getBool(ENV_INSECURE_SSL_HOSTNAME, false));
             alternateSSLHostname(config.getString(ENV_ALT_SSL_HOSTNAME, null));
             allowVersionDowngrade(config.getBool(RD_API_DOWNGRADE, false));
+            connectionPool(
+                    toInteger(config.getLong(ENV_HTTP_POOL_MAX_IDLE, null)),
+                    config.getLong(ENV_HTTP_POOL_KEEP_ALIVE, null)
+            );
+            maxRequests(toInteger(config.getLong(ENV_HTTP_MAX_REQUESTS, null)));
+            maxRequestsPerHost(toInteger(config.getLong(ENV_HTTP_MAX_REQUESTS_PER_HOST, null)));
+            http2(config.getBool(ENV_HTTP2, true));
+            rateLimit(
+                    toDouble(config.getString(ENV_HTTP_MAX_RPS, null)),
+                    toInteger(config.getLong(ENV_HTTP_MAX_CONCURRENT, null))
+            );
+            retry(
+                    toInteger(config.getLong(ENV_HTTP_RETRY, null)),
+                    config.getLong(ENV_HTTP_RETRY_DELAY, null),
+                    config.getLong(ENV_HTTP_RETRY_MAX_DELAY, null),
+                    config.getLong(ENV_HTTP_RETRY_TIME, null)
+            );
+            String cacheDir = config.getString(ENV_HTTP_CACHE_DIR, null);
+            Long cacheSizeMb = config.getLong(ENV_HTTP_CACHE_SIZE, null);
+            httpCache(
+                    null != cacheDir ? new File(cacheDir) : null,
+                    null != cacheSizeMb ? cacheSizeMb * 1024 * 1024 : null
+            );
+            httpCacheMaxAge(config.getLong(ENV_HTTP_CACHE_MAX_AGE, null));
+            httpCacheBypass(config.getBool(ENV_HTTP_CACHE_BYPASS, false));
+            String sessionDir = config.getString(ENV_SESSION_DIR, null);
+            sessionStore(null != sessionDir ? new File(sessionDir) : null);
             return this;
         }
 
@@ -124,6 +260,189 @@ public class RundeckClient {
             return accept(RundeckClient::configAlternateSSLHostname, hostnames);
         }
 
+        /**
+         * Use a connection pool shared with other clients, connections are kept when this client is closed
+         *
+         * @param connectionPool connection pool
+         */
+        public Builder<A> connectionPool(final ConnectionPool connectionPool) {
+            if (null != connectionPool) {
+                this.okhttp.connectionPool(connectionPool);
+                this.sharedConnectionPool = true;
+            }
+            return this;
+        }
+
+        /**
+         * Size of the connection pool for this client, ignored if a shared connection pool is used
+         *
+         * @param maxIdle          max idle connections, or null for the default
+         * @param keepAliveSeconds keep alive time for idle connections, or null for the default
+         */
+        public Builder<A> connectionPool(final Integer maxIdle, final Long keepAliveSeconds) {
+            this.poolMaxIdle = maxIdle;
+            this.poolKeepAlive = keepAliveSeconds;
+            return this;
+        }
+
+        /**
+         * Use a dispatcher shared with other clients, its executor is not shut down when this client is closed
+         *
+         * @param dispatcher dispatcher
+         */
+        public Builder<A> dispatcher(final Dispatcher dispatcher) {
+            if (null != dispatcher) {
+                this.okhttp.dispatcher(dispatcher);
+                this.sharedDispatcher = true;
+            }
+            return this;
+        }
+
+        /**
+         * Max concurrent asynchronous requests for this client, ignored if a shared dispatcher is used
+         *
+         * @param maxRequests max requests, or null for the default
+         */
+        public Builder<A> maxRequests(final Integer maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Max concurrent asynchronous requests per host for this client, ignored if a shared dispatcher is used
+         *
+         * @param maxRequestsPerHost max requests per host, or null for the default
+         */
+        public Builder<A> maxRequestsPerHost(final Integer maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param http2 if false use HTTP/1.1 only, otherwise prefer HTTP/2 when the server supports it
+         */
+        public Builder<A> http2(final boolean http2) {
+            this.okhttp.protocols(
+                    http2 ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                          : Collections.singletonList(Protocol.HTTP_1_1)
+            );
+            return this;
+        }
+
+        /**
+         * Limit the request rate and requests in flight, shared by all clients for the same base URL in this process.
+         * A 429 or 503 response with Retry-After pauses requests until then, requests are only retried if enabled
+         * with {@link #retry(Integer, Long, Long, Long)}.
+         *
+         * @param maxRps        max requests per second, or null for no limit
+         * @param maxConcurrent max requests in flight, or null for no limit
+         */
+        public Builder<A> rateLimit(final Double maxRps, final Integer maxConcurrent) {
+            this.maxRps = maxRps;
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /**
+         * Retry idempotent requests, and POST requests marked with {@link RetryInterceptor#RETRY_POST}, after a
+         * connection failure, timeout, or 502, 503 or 504 response, with exponential backoff and jitter
+         *
+         * @param maxRetries       max retries, or null to leave unchanged
+         * @param delayMillis      delay before the first retry, or null to leave unchanged
+         * @param maxDelayMillis   max delay between retries, or null to leave unchanged
+         * @param maxTotalSeconds  max total time for a call including retries, or null to leave unchanged
+         */
+        public Builder<A> retry(
+                final Integer maxRetries,
+                final Long delayMillis,
+                final Long maxDelayMillis,
+                final Long maxTotalSeconds
+        )
+        {
+            if (null != maxRetries) {
+                this.maxRetries = maxRetries;
+            }
+            if (null != delayMillis) {
+                this.retryDelay = delayMillis;
+            }
+            if (null != maxDelayMillis) {
+                this.retryMaxDelay = maxDelayMillis;
+            }
+            if (null != maxTotalSeconds) {
+                this.retryTime = maxTotalSeconds;
+            }
+            return this;
+        }
+
+        /**
+         * Cache responses of read-mostly endpoints on disk, see {@link CacheRulesInterceptor#DEFAULT_RULES}. A
+         * separate cache is used for each base URL and credential.
+         *
+         * @param dir          cache directory, or null for no cache
+         * @param maxSizeBytes max cache size, or null for the default
+         */
+        public Builder<A> httpCache(final File dir, final Long maxSizeBytes) {
+            this.cacheDir = dir;
+            if (null != maxSizeBytes) {
+                this.cacheSize = maxSizeBytes;
+            }
+            return this;
+        }
+
+        /**
+         * @param maxAge freshness in seconds for all cacheable endpoints, or null for the default of each endpoint
+         */
+        public Builder<A> httpCacheMaxAge(final Long maxAge) {
+            this.cacheMaxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * @param bypass if true, revalidate or refetch all responses instead of using cached responses
+         */
+        public Builder<A> httpCacheBypass(final boolean bypass) {
+            this.cacheBypass = bypass;
+            return this;
+        }
+
+        /**
+         * @param dir directory to store encrypted sessions for password authentication, or null to keep sessions in
+         *            memory only
+         */
+        public Builder<A> sessionStore(final File dir) {
+            this.sessionDir = dir;
+            return this;
+        }
+
+        /**
+         * @param metrics records timing metrics of each call, may be shared by several clients, or null
+         */
+        public Builder<A> metrics(final HttpMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param tracer creates a span for each call and propagates it to the server, or null
+         */
+        public Builder<A> tracer(final Tracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Enable metrics, and receive the timing metrics of each call
+         *
+         * @param listener listener
+         */
+        public Builder<A> metricsListener(final HttpMetrics.Listener listener) {
+            if (null == metrics) {
+                metrics = new HttpMetrics(false);
+            }
+            metrics.addListener(listener);
+            return this;
+        }
+
         public Builder<A> retryConnect(final Boolean retryConnect) {
             if (null != retryConnect) {
                 this.okhttp.retryOnConnectionFailure(retryConnect);
@@ -181,11 +500,15 @@ public class RundeckClient {
 
         public Builder<A> tokenAuth(final String authToken) {
             buildTokenAuth(okhttp, baseUrl, authToken);
+            this.authIdentity = "token:" + authToken;
             return this;
         }
 
         public Builder<A> passwordAuth(final String username, final String password) {
-            buildFormAuth(baseUrl, username, password, okhttp);
+            this.formAuth = buildFormAuth(baseUrl, username, password, okhttp);
+            this.formAuthUser = username;
+            this.formAuthPassword = password;
+            this.authIdentity = "user:" + username;
             return this;
         }
 
@@ -229,7 +552,7 @@ public class RundeckClient {
             builder.addInterceptor(new StaticHeaderInterceptor("X-Rundeck-Auth-Token", authToken));
         }
 
-        private static void buildFormAuth(
+        private static FormAuthInterceptor buildFormAuth(
                 final String baseUrl,
                 final String username,
                 final String password, final OkHttpClient.Builder builder
@@ -257,7 +580,7 @@ public class RundeckClient {
                     .build()
                     .toString();
 
-            builder.addInterceptor(new FormAuthInterceptor(
+            FormAuthInterceptor interceptor = new FormAuthInterceptor(
                     username,
                     password,
                     appBaseUrl,
@@ -273,10 +596,14 @@ public class RundeckClient {
                     System.getProperty(
                             "rundeck.client.user.error",
                             "/user/error"
+                    ),
+                    System.getProperty(
+                            "rundeck.client.user.login",
+                            FormAuthInterceptor.DEFAULT_LOGIN_PATH
                     )
-
-            ));
-
+            );
+            builder.addInterceptor(interceptor);
+            return interceptor;
         }
 
         private Client<A> buildRundeckClient() {
@@ -294,8 +621,57 @@ public class RundeckClient {
             int usedApiVers = apiVersionForUrl(apiBaseUrl, API_VERS);
 
             okhttp.addInterceptor(new StaticHeaderInterceptor("User-Agent", userAgent));
+            if (null != maxRps || null != maxConcurrent) {
+                //network interceptor, so that authentication requests are limited as well
+                okhttp.addNetworkInterceptor(RateLimitInterceptor.forBaseUrl(appBaseUrl, maxRps, maxConcurrent));
+            }
+            if (null != cacheDir) {
+                Cache cache = sharedCache(new File(cacheDir, hash(appBaseUrl + "\n" + authIdentity)), cacheSize);
+                okhttp.cache(cache);
+                okhttp.addNetworkInterceptor(new CacheRulesInterceptor(
+                        CacheRulesInterceptor.DEFAULT_RULES,
+                        cacheMaxAge,
+                        cache
+                ));
+                if (cacheBypass) {
+                    okhttp.addInterceptor(new StaticHeaderInterceptor("Cache-Control", "no-cache"));
+                }
+            }
+            if (null != sessionDir && null != formAuth) {
+                SessionCookieJar cookieJar = new SessionCookieJar(
+                        new File(sessionDir, hash(appBaseUrl + "\n" + formAuthUser) + ".session"),
+                        formAuthPassword
+                );
+                okhttp.cookieJar(cookieJar);
+                //reuse the stored session, expiry is detected by the interceptor
+                formAuth.setAuthorized(cookieJar.hasCookies());
+            }
+            //outermost, so that each attempt is rate limited and authenticated
+            okhttp.interceptors().add(0, new RetryInterceptor(
+                    maxRetries,
+                    retryDelay,
+                    retryMaxDelay,
+                    TimeUnit.SECONDS.toMillis(retryTime),
+                    logger
+            ));
+            if (null != tracer) {
+                //outside of retries, so that a single span covers all attempts
+                okhttp.interceptors().add(0, new TracingInterceptor(tracer));
+            }
+            if (!sharedConnectionPool && (null != poolMaxIdle || null != poolKeepAlive)) {
+                okhttp.connectionPool(newConnectionPool(poolMaxIdle, poolKeepAlive));
+            }
+            if (!sharedDispatcher && (null != maxRequests || null != maxRequestsPerHost)) {
+                okhttp.dispatcher(newDispatcher(maxRequests, maxRequestsPerHost));
+            }
+
+            if (null != metrics) {
+                okhttp.eventListenerFactory(metrics.eventListenerFactory());
+            }
 
             OkHttpClient okhttp = this.okhttp.build();
+            final boolean evictConnections = !sharedConnectionPool;
+            final boolean shutdownDispatcher = !sharedDispatcher;
 
             Retrofit retrofit = new Retrofit.Builder()
                     .baseUrl(apiBaseUrl)
@@ -307,15 +683,20 @@ public class RundeckClient {
                     ))
                     .build();
 
-            return new Client<>(
+            Client<A> client = new Client<>(
                     retrofit.create(api),
                     retrofit,
                     () -> {
-                        okhttp.dispatcher().executorService().shutdown();
-                        okhttp.connectionPool().evictAll();
+                        if (shutdownDispatcher) {
+                            okhttp.dispatcher().executorService().shutdown();
+                        }
+                        if (evictConnections) {
+                            okhttp.connectionPool().evictAll();
+                        }
+                        //caches are shared by clients in this process, so only flush
                         Cache cache = okhttp.cache();
                         if (null != cache && !cache.isClosed()) {
-                            cache.close();
+                            cache.flush();
                         }
                     },
                     appBaseUrl,
@@ -324,6 +705,8 @@ public class RundeckClient {
                     allowVersionDowngrade,
                     logger
             );
+            client.setMetrics(metrics);
+            return client;
         }
 
         private static void validateNotempty(final String authToken, final String s) {
@@ -383,6 +766,103 @@ public class RundeckClient {
         void accept(T builder, X val);
     }
 
+    /**
+     * Create a connection pool to share between clients, using the {@link #ENV_HTTP_POOL_MAX_IDLE} and {@link
+     * #ENV_HTTP_POOL_KEEP_ALIVE} config. The owner should evict its connections when done.
+     *
+     * @param config config
+     *
+     * @return new connection pool
+     */
+    public static ConnectionPool connectionPool(RdClientConfig config) {
+        return newConnectionPool(
+                toInteger(config.getLong(ENV_HTTP_POOL_MAX_IDLE, null)),
+                config.getLong(ENV_HTTP_POOL_KEEP_ALIVE, null)
+        );
+    }
+
+    /**
+     * Create a dispatcher to share between clients, using the {@link #ENV_HTTP_MAX_REQUESTS} and {@link
+     * #ENV_HTTP_MAX_REQUESTS_PER_HOST} config. The owner should shut down its executor when done.
+     *
+     * @param config config
+     *
+     * @return new dispatcher
+     */
+    public static Dispatcher dispatcher(RdClientConfig config) {
+        return newDispatcher(
+                toInteger(config.getLong(ENV_HTTP_MAX_REQUESTS, null)),
+                toInteger(config.getLong(ENV_HTTP_MAX_REQUESTS_PER_HOST, null))
+        );
+    }
+
+    private static ConnectionPool newConnectionPool(final Integer maxIdle, final Long keepAliveSeconds) {
+        return new ConnectionPool(
+                null != maxIdle ? maxIdle : DEFAULT_POOL_MAX_IDLE,
+                null != keepAliveSeconds ? keepAliveSeconds : DEFAULT_POOL_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS
+        );
+    }
+
+    private static Dispatcher newDispatcher(final Integer maxRequests, final Integer maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        if (null != maxRequests) {
+            dispatcher.setMaxRequests(maxRequests);
+        }
+        if (null != maxRequestsPerHost) {
+            dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        }
+        return dispatcher;
+    }
+
+    /**
+     * @param config config
+     *
+     * @return the {@link #ENV_HTTP_METRICS} report format, "table" or "json", or null if not enabled
+     */
+    public static String metricsReport(final RdClientConfig config) {
+        String value = config.getString(ENV_HTTP_METRICS, null);
+        if (null == value || "false".equalsIgnoreCase(value.trim()) || value.trim().isEmpty()) {
+            return null;
+        }
+        return "json".equalsIgnoreCase(value.trim()) ? "json" : "table";
+    }
+
+    /**
+     * @return cache for the directory, shared by all clients in this process
+     */
+    private static Cache sharedCache(final File dir, final long maxSize) {
+        return HTTP_CACHES.computeIfAbsent(dir.getAbsoluteFile(), d -> new Cache(d, maxSize));
+    }
+
+    private static String hash(final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Double toDouble(final String value) {
+        if (null == value) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value, e);
+        }
+    }
+
+    private static Integer toInteger(final Long value) {
+        return null != value ? value.intValue() : null;
+    }
+
     /**
      * @return new Builder
      */
@@ -31,6 +31,7 @@ import org.rundeck.client.api.model.scheduler.ScheduledJobItem;
 import org.rundeck.client.api.model.scheduler.SchedulerTakeover;
 import org.rundeck.client.api.model.scheduler.SchedulerTakeoverResult;
 import org.rundeck.client.util.Json;
+import org.rundeck.client.util.RetryInterceptor;
 import org.rundeck.client.util.Xml;
 import retrofit2.Call;
 import retrofit2.http.*;
@@ -149,7 +150,7 @@ public interface RundeckApi {
      *
      * @return
      */
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("job/{jobid}/execution/enable")
     Call<Simple> jobExecutionEnable(
             @Path("jobid") String jobid
@@ -162,7 +163,7 @@ public interface RundeckApi {
      *
      * @return
      */
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("job/{jobid}/execution/disable")
     Call<Simple> jobExecutionDisable(
             @Path("jobid") String jobid
@@ -175,7 +176,7 @@ public interface RundeckApi {
      *
      * @return
      */
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("job/{jobid}/schedule/enable")
     Call<Simple> jobScheduleEnable(
             @Path("jobid") String jobid
@@ -188,7 +189,7 @@ public interface RundeckApi {
      *
      * @return
      */
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("job/{jobid}/schedule/disable")
     Call<Simple> jobScheduleDisable(
             @Path("jobid") String jobid
@@ -522,6 +523,49 @@ public interface RundeckApi {
             @Query("compacted") Boolean compacted
     );
 
+    /**
+     * Get log output as an unparsed body, which can be read incrementally with {@link
+     * org.rundeck.client.util.ExecOutputParser}
+     *
+     * @param id        execution id
+     * @param offset    byte offset
+     * @param lastmod   last modified time
+     * @param maxlines  max lines
+     * @param compacted compacted results
+     *
+     * @return streaming response body
+     */
+    @Headers("Accept: application/json")
+    @Streaming
+    @GET("execution/{id}/output")
+    Call<ResponseBody> getOutputStream(
+            @Path("id") String id,
+            @Query("offset") Long offset,
+            @Query("lastmod") Long lastmod,
+            @Query("maxlines") Long maxlines,
+            @Query("compacted") Boolean compacted
+    );
+
+
+    /**
+     * Get log output as plain text, output state is returned in X-Rundeck-ExecOutput-* response headers
+     *
+     * @param id       execution id
+     * @param offset   byte offset
+     * @param lastmod  last modified time
+     * @param maxlines max lines
+     *
+     * @return streaming text body
+     */
+    @Headers("Accept: text/plain")
+    @Streaming
+    @GET("execution/{id}/output?format=text")
+    Call<ResponseBody> getOutputText(
+            @Path("id") String id,
+            @Query("offset") Long offset,
+            @Query("lastmod") Long lastmod,
+            @Query("maxlines") Long maxlines
+    );
 
     @Headers("Accept: application/json")
     @POST("project/{project}/run/command")
@@ -735,11 +779,11 @@ public interface RundeckApi {
     Call<SystemInfo> systemInfo();
 
 
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("system/executions/enable")
     Call<SystemMode> executionModeEnable();
 
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("system/executions/disable")
     Call<SystemMode> executionModeDisable();
 
@@ -1143,7 +1187,7 @@ public interface RundeckApi {
      * @see <a href="https://rundeck.org/docs/api/#bulk-toggle-job-execution">API</a>
      */
     @Json
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("jobs/execution/enable")
     Call<BulkToggleJobExecutionResponse> bulkEnableJobs(
         @Body IdList ids
@@ -1153,7 +1197,7 @@ public interface RundeckApi {
      * @see <a href="https://rundeck.org/docs/api/#bulk-toggle-job-execution">API</a>
      */
     @Json
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("jobs/execution/disable")
     Call<BulkToggleJobExecutionResponse> bulkDisableJobs(
         @Body IdList ids
@@ -1165,7 +1209,7 @@ public interface RundeckApi {
      * @see <a href="https://rundeck.org/docs/api/#bulk-toggle-job-schedules">API</a>
      */
     @Json
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("jobs/schedule/enable")
     Call<BulkToggleJobScheduleResponse> bulkEnableJobSchedule(
         @Body IdList ids
@@ -1175,7 +1219,7 @@ public interface RundeckApi {
      * @see <a href="https://rundeck.org/docs/api/#bulk-toggle-job-schedules">API</a>
      */
     @Json
-    @Headers("Accept: application/json")
+    @Headers({"Accept: application/json", RetryInterceptor.RETRY_POST})
     @POST("jobs/schedule/disable")
     Call<BulkToggleJobScheduleResponse> bulkDisableJobSchedule(
         @Body IdList ids
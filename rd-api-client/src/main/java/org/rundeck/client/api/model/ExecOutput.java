@@ -16,6 +16,7 @@
 
 package org.rundeck.client.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import java.util.ArrayList;
@@ -42,9 +43,25 @@ public class ExecOutput {
     public String compactedAttr;
 
     private List<ExecLog> decompacted;
+    @JsonIgnore
+    private int streamedEntries;
+
+    /**
+     * @return number of entries received, including entries which were streamed rather than collected
+     */
+    public int entryCount() {
+        return null != entries ? entries.size() : streamedEntries;
+    }
+
+    /**
+     * @param streamedEntries number of entries which were passed to a receiver instead of collected
+     */
+    public void streamedEntries(final int streamedEntries) {
+        this.streamedEntries = streamedEntries;
+    }
 
     public List<ExecLog> decompactEntries() {
-        if (null == compacted || !compacted) {
+        if (null == compacted || !compacted || null == entries) {
             return entries;
         }
         if (null != decompacted) {
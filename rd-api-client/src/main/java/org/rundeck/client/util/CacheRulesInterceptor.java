@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Network interceptor which makes successful GET responses of read-mostly endpoints cacheable for a fixed time, so
+ * that an HTTP cache can serve them while fresh, and revalidate them with ETag or Last-Modified when stale if the
+ * server sent either.
+ * <p>
+ * A successful request with another method removes the cached responses it may have changed: a request within a
+ * project removes that project's entries and the project list, a request for jobs removes the job lists of all
+ * projects.
+ */
+public class CacheRulesInterceptor
+        implements Interceptor
+{
+    /**
+     * Default freshness in seconds by API path
+     */
+    public static final Map<Pattern, Long> DEFAULT_RULES;
+
+    static {
+        Map<Pattern, Long> rules = new LinkedHashMap<>();
+        rules.put(Pattern.compile(".*/api/\\d+/projects"), 60L);
+        rules.put(Pattern.compile(".*/api/\\d+/project/[^/]+/resources"), 30L);
+        rules.put(Pattern.compile(".*/api/\\d+/project/[^/]+/jobs"), 30L);
+        rules.put(Pattern.compile(".*/api/\\d+/system/info"), 60L);
+        rules.put(Pattern.compile(".*/api/\\d+/user/roles"), 300L);
+        DEFAULT_RULES = Collections.unmodifiableMap(rules);
+    }
+
+    private static final Pattern PROJECT_PATH = Pattern.compile("(.*/api/)\\d+/project/([^/]+)(/.*)?");
+    private static final Pattern PROJECTS_PATH = Pattern.compile("(.*/api/)\\d+/projects");
+    private static final Pattern JOBS_PATH = Pattern.compile("(.*/api/)\\d+/jobs?(/.*)?");
+
+    private final Map<Pattern, Long> rules;
+    private final Long maxAge;
+    private final Cache cache;
+
+    /**
+     * @param rules  freshness in seconds by path pattern
+     * @param maxAge freshness in seconds to use instead of the rule value, or null
+     */
+    public CacheRulesInterceptor(final Map<Pattern, Long> rules, final Long maxAge) {
+        this(rules, maxAge, null);
+    }
+
+    /**
+     * @param rules  freshness in seconds by path pattern
+     * @param maxAge freshness in seconds to use instead of the rule value, or null
+     * @param cache  cache to remove changed entries from, or null
+     */
+    public CacheRulesInterceptor(final Map<Pattern, Long> rules, final Long maxAge, final Cache cache) {
+        this.rules = rules;
+        this.maxAge = maxAge;
+        this.cache = cache;
+    }
+
+    /**
+     * @param path URL path
+     *
+     * @return freshness in seconds, or null if the path is not cacheable
+     */
+    Long freshness(final String path) {
+        for (Map.Entry<Pattern, Long> rule : rules.entrySet()) {
+            if (rule.getKey().matcher(path).matches()) {
+                return null != maxAge ? maxAge : rule.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param path URL path of a request which may change data
+     *
+     * @return pattern of cached paths which may have changed, or null
+     */
+    static Pattern invalidates(final String path) {
+        Matcher project = PROJECT_PATH.matcher(path);
+        if (project.matches()) {
+            return Pattern.compile(
+                    Pattern.quote(project.group(1)) + "\\d+/(projects|project/" + Pattern.quote(project.group(2))
+                    + "(/.*)?)"
+            );
+        }
+        Matcher projects = PROJECTS_PATH.matcher(path);
+        if (projects.matches()) {
+            return Pattern.compile(Pattern.quote(projects.group(1)) + "\\d+/projects");
+        }
+        Matcher jobs = JOBS_PATH.matcher(path);
+        if (jobs.matches()) {
+            return Pattern.compile(Pattern.quote(jobs.group(1)) + "\\d+/project/[^/]+/jobs");
+        }
+        return null;
+    }
+
+    private void invalidate(final HttpUrl url) throws IOException {
+        Pattern changed = invalidates(url.encodedPath());
+        if (null == changed) {
+            return;
+        }
+        for (Iterator<String> urls = cache.urls(); urls.hasNext(); ) {
+            HttpUrl cached = HttpUrl.parse(urls.next());
+            if (null != cached
+                && cached.host().equals(url.host())
+                && cached.port() == url.port()
+                && changed.matcher(cached.encodedPath()).matches()) {
+                urls.remove();
+            }
+        }
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method()) && !"HEAD".equals(request.method())) {
+            if (null != cache && response.isSuccessful()) {
+                invalidate(request.url());
+            }
+            return response;
+        }
+        if (!"GET".equals(request.method()) || response.code() != 200) {
+            return response;
+        }
+        Long seconds = freshness(request.url().encodedPath());
+        if (null == seconds) {
+            return response;
+        }
+        return response.newBuilder()
+                       .removeHeader("Pragma")
+                       .removeHeader("Expires")
+                       .header("Cache-Control", "private, max-age=" + seconds)
+                       //the same URL may be requested as JSON or XML
+                       .header("Vary", "Accept")
+                       .build();
+    }
+}
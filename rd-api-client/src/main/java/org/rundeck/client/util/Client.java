@@ -29,6 +29,7 @@ import retrofit2.Retrofit;
 
 import java.io.*;
 import java.lang.annotation.Annotation;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -61,6 +62,7 @@ public class Client<T> implements ServiceClient<T> {
     private final boolean allowVersionDowngrade;
     private final Logger logger;
     private final Closeable closer;
+    private HttpMetrics metrics;
 
     public interface Logger {
         void output(String out);
@@ -111,6 +113,31 @@ public class Client<T> implements ServiceClient<T> {
         this.closer = closer;
     }
 
+    /**
+     * @return HTTP metrics recorded for calls by this client, or null if not enabled
+     */
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(final HttpMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Receive the timing metrics of each HTTP call made by this client
+     *
+     * @param listener listener
+     *
+     * @throws IllegalStateException if metrics were not enabled when the client was built
+     */
+    public void addMetricsListener(final HttpMetrics.Listener listener) {
+        if (null == metrics) {
+            throw new IllegalStateException("HTTP metrics are not enabled for this client");
+        }
+        metrics.addListener(listener);
+    }
+
     @Override
     public void close() throws IOException {
         closer.close();
@@ -623,6 +650,23 @@ public class Client<T> implements ServiceClient<T> {
         return checkErrorResponseDowngradable(func.apply(getService()));
     }
 
+    /**
+     * call a function using the service asynchronously, an unsuccessful response which cannot be downgraded completes
+     * with a re-readable error response
+     *
+     * @param func function using the service
+     * @param <U>  result type
+     *
+     * @return future response with result type
+     */
+    @Override
+    public <U> CompletableFuture<WithErrorResponse<U>> apiWithErrorResponseDowngradableAsync(
+            final Function<T, Call<U>> func
+    )
+    {
+        return ServiceClient.enqueue(func.apply(getService()), this::checkErrorResponseDowngradable);
+    }
+
     @Override
     public T getService() {
         return service;
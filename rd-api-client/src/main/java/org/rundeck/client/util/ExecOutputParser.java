@@ -0,0 +1,252 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import okhttp3.Headers;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import org.rundeck.client.api.RundeckApi;
+import org.rundeck.client.api.model.ExecLog;
+import org.rundeck.client.api.model.ExecOutput;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads execution output JSON incrementally, passing decompacted log entries to a receiver as they are parsed
+ * instead of collecting the full entry list, or copies plain text output directly to a sink.
+ */
+public class ExecOutputParser {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ExecOutputParser() {
+    }
+
+    /**
+     * Parse execution output JSON
+     *
+     * @param body      json body
+     * @param compacted true if compacted output was requested, used if the "compacted" field does not precede the
+     *                  entries
+     * @param receiver  receives each decompacted log entry
+     *
+     * @return output without entries, {@link ExecOutput#entryCount()} will return the number of entries received
+     *
+     * @throws IOException if a parse error occurs
+     */
+    public static ExecOutput parse(final InputStream body, final boolean compacted, final Consumer<ExecLog> receiver)
+            throws IOException
+    {
+        ObjectNode fields = MAPPER.createObjectNode();
+        int count = 0;
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected execution output object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("entries".equals(name) && token == JsonToken.START_ARRAY) {
+                    boolean decompact = fields.has("compacted") ? fields.get("compacted").asBoolean() : compacted;
+                    ExecLog prev = null;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        ExecLog entry = MAPPER.readValue(parser, ExecLog.class);
+                        if (decompact) {
+                            entry = entry.decompact(prev);
+                            prev = entry;
+                        }
+                        receiver.accept(entry);
+                        count++;
+                    }
+                } else {
+                    fields.set(name, MAPPER.readTree(parser));
+                }
+            }
+        }
+        ExecOutput output = MAPPER.treeToValue(fields, ExecOutput.class);
+        output.streamedEntries(count);
+        return output;
+    }
+
+    /**
+     * Parse execution output JSON, passing entries to the receiver in chunks of at most the given size
+     *
+     * @param body      json body
+     * @param compacted true if compacted output was requested
+     * @param chunkSize max entries in each chunk
+     * @param receiver  receives lists of decompacted log entries
+     *
+     * @return output without entries
+     *
+     * @throws IOException if a parse error occurs
+     */
+    public static ExecOutput parse(
+            final InputStream body,
+            final boolean compacted,
+            final int chunkSize,
+            final Consumer<List<ExecLog>> receiver
+    ) throws IOException
+    {
+        final List<ExecLog> chunk = new ArrayList<>(chunkSize);
+        ExecOutput output = parse(body, compacted, entry -> {
+            chunk.add(entry);
+            if (chunk.size() >= chunkSize) {
+                receiver.accept(new ArrayList<>(chunk));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty() || output.entryCount() == 0) {
+            receiver.accept(chunk);
+        }
+        return output;
+    }
+
+    /**
+     * Request a page of execution output and stream the entries to the receiver
+     *
+     * @param client    client
+     * @param id        execution id
+     * @param offset    byte offset
+     * @param lastmod   last modified time
+     * @param max       max lines
+     * @param compacted request compacted output
+     * @param chunkSize max entries in each chunk
+     * @param receiver  receives lists of decompacted log entries
+     *
+     * @return output without entries
+     *
+     * @throws IOException if the request fails or a parse error occurs
+     */
+    public static ExecOutput getOutput(
+            final ServiceClient<RundeckApi> client,
+            final String id,
+            final long offset,
+            final long lastmod,
+            final long max,
+            final boolean compacted,
+            final int chunkSize,
+            final Consumer<List<ExecLog>> receiver
+    ) throws IOException
+    {
+        try (ResponseBody body = client.apiCall(api -> api.getOutputStream(id, offset, lastmod, max, compacted))) {
+            return parse(body.byteStream(), compacted, chunkSize, receiver);
+        }
+    }
+
+    /**
+     * Request a page of execution output as plain text and write it directly to the sink, without parsing log
+     * entries
+     *
+     * @param client  client
+     * @param id      execution id
+     * @param offset  byte offset
+     * @param lastmod last modified time
+     * @param max     max lines
+     * @param sink    destination
+     *
+     * @return output state read from the response headers, {@link ExecOutput#entryCount()} is 1 if any data was
+     *         written, and the number of bytes written
+     *
+     * @throws IOException if the request fails or the sink cannot be written
+     */
+    public static TextPage writeText(
+            final ServiceClient<RundeckApi> client,
+            final String id,
+            final long offset,
+            final long lastmod,
+            final long max,
+            final BufferedSink sink
+    ) throws IOException
+    {
+        Response<ResponseBody> response = client.apiWithErrorResponse(
+                api -> api.getOutputText(id, offset, lastmod, max)
+        ).getResponse();
+        long written;
+        ExecOutput output;
+        try (ResponseBody body = response.body()) {
+            output = fromHeaders(response.headers());
+            written = null != body ? sink.writeAll(body.source()) : 0;
+        }
+        output.streamedEntries(written > 0 ? 1 : 0);
+        return new TextPage(output, written);
+    }
+
+    /**
+     * Result of writing a page of plain text output
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class TextPage {
+        /**
+         * output state read from the response headers
+         */
+        private final ExecOutput output;
+        /**
+         * number of bytes written to the sink
+         */
+        private final long bytes;
+    }
+
+    /**
+     * @param headers text output response headers
+     *
+     * @return output state from the headers
+     *
+     * @throws IOException if the offset header is missing or invalid, as the next page could not be requested
+     */
+    static ExecOutput fromHeaders(final Headers headers) throws IOException {
+        ExecOutput output = new ExecOutput();
+        output.offset = longHeader(headers, "X-Rundeck-ExecOutput-Offset", -1L);
+        if (output.offset < 0) {
+            throw new IOException(
+                    "Expected X-Rundeck-ExecOutput-Offset header in the log output response, got: "
+                    + headers.get("X-Rundeck-ExecOutput-Offset")
+            );
+        }
+        output.lastModified = longHeader(headers, "X-Rundeck-ExecOutput-LastModifed", 0L);
+        output.completed = Boolean.parseBoolean(headers.get("X-Rundeck-ExecOutput-Completed"));
+        output.execCompleted = Boolean.parseBoolean(headers.get("X-Rundeck-Exec-Completed"));
+        output.unmodified = Boolean.parseBoolean(headers.get("X-Rundeck-ExecOutput-Unmodified"));
+        output.empty = Boolean.parseBoolean(headers.get("X-Rundeck-ExecOutput-Empty"));
+        output.execState = headers.get("X-Rundeck-Exec-State");
+        output.percentLoaded = output.completed ? 100 : 0;
+        return output;
+    }
+
+    private static long longHeader(final Headers headers, final String name, final long defval) {
+        String value = headers.get(name);
+        if (null == value) {
+            return defval;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defval;
+        }
+    }
+}
@@ -25,7 +25,11 @@ import java.io.IOException;
  * Handle Form authentication flow to Rundeck
  */
 public class FormAuthInterceptor implements Interceptor {
-    private boolean authorized;
+    /**
+     * Default path of the login page, a request redirected there indicates an expired session
+     */
+    public static final String DEFAULT_LOGIN_PATH = "/user/login";
+    private volatile boolean authorized;
     private final String username;
     private final String password;
     private final String baseUrl;
@@ -33,6 +37,7 @@ public class FormAuthInterceptor implements Interceptor {
     private final String usernameField;
     private final String passwordField;
     private final String loginErrorURLPath;
+    private final String loginURLPath;
 
     public FormAuthInterceptor(
             final String username,
@@ -44,6 +49,30 @@ public class FormAuthInterceptor implements Interceptor {
             final String loginErrorPath
     )
     {
+        this(
+                username,
+                password,
+                baseUrl,
+                securityUrl,
+                usernameField,
+                passwordField,
+                loginErrorPath,
+                DEFAULT_LOGIN_PATH
+        );
+    }
+
+    public FormAuthInterceptor(
+            final String username,
+            final String password,
+            final String baseUrl,
+            final String securityUrl,
+            final String usernameField,
+            final String passwordField,
+            final String loginErrorPath,
+            final String loginPath
+    )
+    {
+        this.loginURLPath = loginPath;
         this.username = username;
         this.password = password;
         this.baseUrl = baseUrl;
@@ -53,13 +82,56 @@ public class FormAuthInterceptor implements Interceptor {
         this.loginErrorURLPath = loginErrorPath;
     }
 
+    /**
+     * Mark the session as already authorized, e.g. when a stored session cookie is available. If the session has
+     * expired, authentication is done when detected.
+     *
+     * @param authorized true if authorized
+     */
+    public void setAuthorized(final boolean authorized) {
+        this.authorized = authorized;
+    }
+
     @Override
     public Response intercept(final Chain chain) throws IOException {
+        boolean authenticated = false;
+        if (!authorized) {
+            authenticateOnce(chain);
+            authenticated = true;
+        }
+
+        Response response = chain.proceed(chain.request());
+        if (!authenticated && isSessionExpired(response)) {
+            //re-authenticate and repeat the request
+            response.close();
+            authorized = false;
+            authenticateOnce(chain);
+            response = chain.proceed(chain.request());
+        }
+        return response;
+    }
+
+    private synchronized void authenticateOnce(final Chain chain) throws IOException {
         if (!authorized) {
             authenticate(chain);
         }
+    }
 
-        return chain.proceed(chain.request());
+    /**
+     * @param response response
+     *
+     * @return true if the response indicates the session is not authenticated: a 401 response, or a redirect to the
+     *         login page
+     */
+    boolean isSessionExpired(final Response response) {
+        if (response.code() == 401) {
+            return true;
+        }
+        if (null == response.priorResponse()) {
+            return false;
+        }
+        String path = response.request().url().encodedPath();
+        return path.endsWith(loginURLPath) || path.contains(loginErrorURLPath);
     }
 
     /**
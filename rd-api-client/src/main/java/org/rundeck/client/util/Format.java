@@ -17,7 +17,9 @@
 package org.rundeck.client.util;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -35,52 +37,98 @@ public class Format {
     }
 
     public static String format(String format, Map<?, ?> data, final String start, final String end) {
+        return compile(format, start, end).render(data);
+    }
+
+    /**
+     * Parse a format string into a reusable template
+     *
+     * @param format format string
+     * @param start  start delimiter of a key
+     * @param end    end delimiter of a key
+     *
+     * @return template
+     */
+    public static Template compile(String format, final String start, final String end) {
         Pattern pat = Pattern.compile(Pattern.quote(start) + "([\\w._-]+)" + Pattern.quote(end));
         Matcher matcher = pat.matcher(format);
-        StringBuffer sb = new StringBuffer();
+        List<String> literals = new ArrayList<>();
+        List<String[]> paths = new ArrayList<>();
+        int last = 0;
         while (matcher.find()) {
+            literals.add(format.substring(last, matcher.start()));
             String found = matcher.group(1);
-            String[] path = new String[]{found};
-            if (found.contains(".")) {
-                path = found.split("\\.");
-            }
-            Object result = descend(data, path);
-            String replacement = "";
-            if (result != null) {
-                replacement = Matcher.quoteReplacement(result.toString());
+            paths.add(found.contains(".") ? found.split("\\.") : new String[]{found});
+            last = matcher.end();
+        }
+        literals.add(format.substring(last));
+        return new Template(literals.toArray(new String[0]), paths.toArray(new String[0][]));
+    }
+
+    /**
+     * A parsed format string: literal segments alternating with pre-split key paths
+     */
+    public static final class Template {
+        private final String[] literals;
+        private final String[][] paths;
+        private final int literalLength;
+
+        private Template(final String[] literals, final String[][] paths) {
+            this.literals = literals;
+            this.paths = paths;
+            int len = 0;
+            for (String literal : literals) {
+                len += literal.length();
             }
-            matcher.appendReplacement(sb, replacement);
+            this.literalLength = len;
         }
-        matcher.appendTail(sb);
 
-        return sb.toString();
-    }
+        /**
+         * @param data data
+         *
+         * @return formatted string, with missing keys replaced by a blank string
+         */
+        public String render(final Map<?, ?> data) {
+            if (paths.length == 0) {
+                return literals[0];
+            }
+            StringBuilder sb = new StringBuilder(literalLength + 16 * paths.length);
+            for (int i = 0; i < paths.length; i++) {
+                sb.append(literals[i]);
+                Object result = descend(data, paths[i]);
+                if (result != null) {
+                    sb.append(result);
+                }
+            }
+            sb.append(literals[paths.length]);
+            return sb.toString();
+        }
 
-    private static Object descend(final Map<?, ?> data, final String... found) {
-        if (found == null || found.length == 0) {
-            return null;
+        public String render(final DataOutput data) {
+            return render(data.asMap());
         }
-        String key = found[0];
+    }
 
-        Object value = data.getOrDefault(key, null);
-        if (null == value) {
+    private static Object descend(final Map<?, ?> data, final String[] path) {
+        if (path.length == 0) {
             return null;
         }
-        if (found.length > 1) {
-            String[] rest = new String[found.length - 1];
-            System.arraycopy(found, 1, rest, 0, rest.length);
-            if (value instanceof Map) {
-                return descend((Map) value, rest);
-            } else {
+        Map<?, ?> current = data;
+        for (int i = 0; ; i++) {
+            Object value = current.get(path[i]);
+            if (null == value || i == path.length - 1) {
+                return value;
+            }
+            if (!(value instanceof Map)) {
                 return null;
             }
-        } else {
-            return value;
+            current = (Map<?, ?>) value;
         }
     }
 
     public static Function<Map<?, ?>, String> formatter(String format, final String start, final String end) {
-        return (Map<?, ?> map) -> format(format, map, start, end);
+        Template template = compile(format, start, end);
+        return template::render;
     }
 
     public static <X extends DataOutput> Function<X, String> dataFormatter(
@@ -100,7 +148,8 @@ public class Format {
             final String end
     )
     {
-        return (X obj) -> format(format, convert.apply(obj), start, end);
+        Template template = compile(format, start, end);
+        return (X obj) -> template.render(convert.apply(obj));
     }
 
     public static String date(Date date, String simpleFormat) {
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records timing of the phases of each HTTP call: DNS lookup, connect, TLS handshake, time to first byte and body
+ * download, as well as bytes sent and received and whether a pooled connection was reused. Install with {@link
+ * #eventListenerFactory()}. Metrics of each finished call are passed to the registered listeners, and kept for a
+ * report if collecting is enabled.
+ */
+public class HttpMetrics {
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final boolean collect;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<CallMetrics> calls = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Receives metrics for each finished call
+     */
+    public interface Listener {
+        /**
+         * @param metrics metrics of a call which completed or failed
+         */
+        void callFinished(CallMetrics metrics);
+    }
+
+    /**
+     * @param collect if true, keep the metrics of all calls for {@link #getCalls()} and the reports
+     */
+    public HttpMetrics(final boolean collect) {
+        this.collect = collect;
+    }
+
+    /**
+     * @param listener listener
+     */
+    public void addListener(final Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener listener
+     */
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @return event listener factory for an OkHttpClient
+     */
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new CallListener();
+    }
+
+    /**
+     * @return metrics of the finished calls, if collecting
+     */
+    public List<CallMetrics> getCalls() {
+        synchronized (calls) {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    void finished(final CallMetrics metrics) {
+        if (collect) {
+            calls.add(metrics);
+        }
+        for (Listener listener : listeners) {
+            listener.callFinished(metrics);
+        }
+    }
+
+    /**
+     * @return report of all collected calls as a text table, with a total line
+     */
+    public String tableReport() {
+        List<CallMetrics> list = getCalls();
+        String format = "%-6s %6s %8s %8s %8s %8s %8s %8s %10s %10s %6s  %s%n";
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(
+                format,
+                "METHOD", "STATUS", "TOTAL", "DNS", "CONNECT", "TLS", "TTFB", "BODY", "SENT", "RECEIVED", "REUSED",
+                "URL"
+        ));
+        CallMetrics total = new CallMetrics();
+        for (CallMetrics call : list) {
+            sb.append(String.format(
+                    format,
+                    call.method,
+                    call.error != null ? "ERR" : Integer.toString(call.status),
+                    call.getTotalMillis(),
+                    call.getDnsMillis(),
+                    call.getConnectMillis(),
+                    call.getTlsMillis(),
+                    call.getTtfbMillis(),
+                    call.getBodyMillis(),
+                    call.bytesSent,
+                    call.bytesReceived,
+                    call.connectionReused ? "yes" : "no",
+                    null != call.error ? call.url + " (" + call.error + ")" : call.url
+            ));
+            total.add(call);
+        }
+        sb.append(String.format(
+                format,
+                "TOTAL",
+                "",
+                total.getTotalMillis(),
+                total.getDnsMillis(),
+                total.getConnectMillis(),
+                total.getTlsMillis(),
+                total.getTtfbMillis(),
+                total.getBodyMillis(),
+                total.bytesSent,
+                total.bytesReceived,
+                list.stream().filter(CallMetrics::isConnectionReused).count(),
+                list.size() + " calls"
+        ));
+        return sb.toString();
+    }
+
+    /**
+     * @return report of all collected calls as JSON
+     */
+    public String jsonReport() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (CallMetrics call : getCalls()) {
+            list.add(call.toMap());
+        }
+        try {
+            return MAPPER.writeValueAsString(list);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Metrics of a single call, including any redirects and follow up requests. Durations are in milliseconds, and
+     * are 0 if the phase did not occur, e.g. DNS and connect for a reused connection.
+     */
+    public static class CallMetrics {
+        private String method;
+        private String url;
+        private int status;
+        private String protocol;
+        private String error;
+        private boolean connectionReused;
+        private long bytesSent;
+        private long bytesReceived;
+        private long dnsNanos;
+        private long connectNanos;
+        private long tlsNanos;
+        private long ttfbNanos;
+        private long bodyNanos;
+        private long totalNanos;
+
+        void add(final CallMetrics other) {
+            bytesSent += other.bytesSent;
+            bytesReceived += other.bytesReceived;
+            dnsNanos += other.dnsNanos;
+            connectNanos += other.connectNanos;
+            tlsNanos += other.tlsNanos;
+            ttfbNanos += other.ttfbNanos;
+            bodyNanos += other.bodyNanos;
+            totalNanos += other.totalNanos;
+        }
+
+        /**
+         * @return data for a report
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("method", method);
+            map.put("url", url);
+            map.put("status", status);
+            map.put("protocol", protocol);
+            if (null != error) {
+                map.put("error", error);
+            }
+            map.put("connectionReused", connectionReused);
+            map.put("bytesSent", bytesSent);
+            map.put("bytesReceived", bytesReceived);
+            map.put("dnsMillis", getDnsMillis());
+            map.put("connectMillis", getConnectMillis());
+            map.put("tlsMillis", getTlsMillis());
+            map.put("ttfbMillis", getTtfbMillis());
+            map.put("bodyMillis", getBodyMillis());
+            map.put("totalMillis", getTotalMillis());
+            return map;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * @return URL without the query string
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * @return response status code, or 0 if no response was received
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return protocol of the last connection, or null
+         */
+        public String getProtocol() {
+            return protocol;
+        }
+
+        /**
+         * @return error message if the call failed, or null
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return true if a pooled connection was used instead of opening a new one
+         */
+        public boolean isConnectionReused() {
+            return connectionReused;
+        }
+
+        /**
+         * @return request header and body bytes
+         */
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        /**
+         * @return response header and body bytes
+         */
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public long getDnsMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(dnsNanos);
+        }
+
+        /**
+         * @return time to connect, including the TLS handshake
+         */
+        public long getConnectMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(connectNanos);
+        }
+
+        public long getTlsMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(tlsNanos);
+        }
+
+        /**
+         * @return time from sending the request to receiving the response headers
+         */
+        public long getTtfbMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(ttfbNanos);
+        }
+
+        /**
+         * @return time to read the response body
+         */
+        public long getBodyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(bodyNanos);
+        }
+
+        public long getTotalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "CallMetrics" + toMap();
+        }
+    }
+
+    private class CallListener
+            extends EventListener
+    {
+        private final CallMetrics metrics = new CallMetrics();
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long tlsStart;
+        private long requestStart;
+        private long bodyStart;
+        private boolean connected;
+
+        @Override
+        public void callStart(final Call call) {
+            callStart = System.nanoTime();
+            metrics.method = call.request().method();
+            metrics.url = redact(call.request().url());
+        }
+
+        @Override
+        public void dnsStart(final Call call, final String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(final Call call, final String domainName, final List<InetAddress> inetAddressList) {
+            metrics.dnsNanos += System.nanoTime() - dnsStart;
+        }
+
+        @Override
+        public void connectStart(final Call call, final InetSocketAddress inetSocketAddress, final Proxy proxy) {
+            connectStart = System.nanoTime();
+            connected = true;
+        }
+
+        @Override
+        public void secureConnectStart(final Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(final Call call, final Handshake handshake) {
+            metrics.tlsNanos += System.nanoTime() - tlsStart;
+        }
+
+        @Override
+        public void connectEnd(
+                final Call call,
+                final InetSocketAddress inetSocketAddress,
+                final Proxy proxy,
+                final Protocol protocol
+        )
+        {
+            metrics.connectNanos += System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void connectFailed(
+                final Call call,
+                final InetSocketAddress inetSocketAddress,
+                final Proxy proxy,
+                final Protocol protocol,
+                final IOException ioe
+        )
+        {
+            metrics.connectNanos += System.nanoTime() - connectStart;
+        }
+
+        @Override
+        public void connectionAcquired(final Call call, final Connection connection) {
+            metrics.connectionReused = !connected;
+            metrics.protocol = connection.protocol().toString();
+            connected = false;
+        }
+
+        @Override
+        public void requestHeadersStart(final Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersEnd(final Call call, final Request request) {
+            metrics.bytesSent += request.headers().byteCount();
+        }
+
+        @Override
+        public void requestBodyEnd(final Call call, final long byteCount) {
+            metrics.bytesSent += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(final Call call) {
+            metrics.ttfbNanos += System.nanoTime() - requestStart;
+        }
+
+        @Override
+        public void responseHeadersEnd(final Call call, final Response response) {
+            metrics.bytesReceived += response.headers().byteCount();
+            metrics.status = response.code();
+        }
+
+        @Override
+        public void responseBodyStart(final Call call) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(final Call call, final long byteCount) {
+            metrics.bodyNanos += System.nanoTime() - bodyStart;
+            metrics.bytesReceived += byteCount;
+        }
+
+        @Override
+        public void callEnd(final Call call) {
+            metrics.totalNanos = System.nanoTime() - callStart;
+            finished(metrics);
+        }
+
+        @Override
+        public void callFailed(final Call call, final IOException ioe) {
+            metrics.totalNanos = System.nanoTime() - callStart;
+            metrics.error = null != ioe.getMessage() ? ioe.getMessage() : ioe.toString();
+            finished(metrics);
+        }
+    }
+
+    /**
+     * @return url without query string or credentials, which may contain tokens
+     */
+    private static String redact(final HttpUrl url) {
+        return url.newBuilder().query(null).username("").password("").build().toString();
+    }
+}
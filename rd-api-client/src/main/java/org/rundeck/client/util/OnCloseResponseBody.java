@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Response body which runs an action once when the body is closed, so that interceptors can account for the time
+ * the body is read as part of the call.
+ */
+class OnCloseResponseBody
+        extends ResponseBody
+{
+    private final ResponseBody delegate;
+    private final Runnable action;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private BufferedSource source;
+
+    /**
+     * @param delegate body
+     * @param action   run when the body is closed
+     */
+    OnCloseResponseBody(final ResponseBody delegate, final Runnable action) {
+        this.delegate = delegate;
+        this.action = action;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public synchronized BufferedSource source() {
+        if (null == source) {
+            source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (closed.compareAndSet(false, true)) {
+                            action.run();
+                        }
+                    }
+                }
+            });
+        }
+        return source;
+    }
+}
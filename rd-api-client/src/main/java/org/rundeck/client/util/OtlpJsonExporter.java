@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Exports spans in the OTLP/JSON encoding, one ExportTraceServiceRequest per line, as read by the OpenTelemetry
+ * collector file receiver.
+ */
+public class OtlpJsonExporter
+        implements Tracer.Exporter
+{
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    static final String SCOPE_NAME = "org.rundeck.client";
+
+    private final Consumer<String> output;
+
+    /**
+     * @param output receives each JSON line
+     */
+    public OtlpJsonExporter(final Consumer<String> output) {
+        this.output = output;
+    }
+
+    /**
+     * @param file file to append lines to
+     *
+     * @return exporter appending to the file
+     */
+    public static OtlpJsonExporter toFile(final File file) {
+        return new OtlpJsonExporter(line -> {
+            try {
+                File dir = file.getAbsoluteFile().getParentFile();
+                Files.createDirectories(dir.toPath());
+                try (Writer writer = Files.newBufferedWriter(
+                        file.toPath(),
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND
+                )) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Error writing trace file: " + file + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public void export(final String serviceName, final List<Tracer.Span> spans) throws IOException {
+        output.accept(MAPPER.writeValueAsString(request(serviceName, spans)));
+    }
+
+    /**
+     * @param serviceName service name
+     * @param spans       spans
+     *
+     * @return ExportTraceServiceRequest data
+     */
+    static Map<String, Object> request(final String serviceName, final List<Tracer.Span> spans) {
+        List<Object> spanList = new ArrayList<>();
+        for (Tracer.Span span : spans) {
+            spanList.add(span(span));
+        }
+        Map<String, Object> scope = new LinkedHashMap<>();
+        scope.put("name", SCOPE_NAME);
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", scope);
+        scopeSpans.put("spans", spanList);
+
+        Map<String, Object> resource = new LinkedHashMap<>();
+        resource.put("attributes", attributes(Collections.singletonMap("service.name", serviceName)));
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", resource);
+        resourceSpans.put("scopeSpans", Collections.singletonList(scopeSpans));
+
+        return Collections.singletonMap("resourceSpans", Collections.singletonList(resourceSpans));
+    }
+
+    private static Map<String, Object> span(final Tracer.Span span) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("traceId", span.getTraceId());
+        map.put("spanId", span.getSpanId());
+        if (null != span.getParentSpanId()) {
+            map.put("parentSpanId", span.getParentSpanId());
+        }
+        map.put("name", span.getName());
+        map.put("kind", span.getKind());
+        //int64 values are encoded as strings
+        map.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+        map.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+        map.put("attributes", attributes(span.getAttributes()));
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("code", span.getStatusCode());
+        if (null != span.getStatusMessage()) {
+            status.put("message", span.getStatusMessage());
+        }
+        map.put("status", status);
+        return map;
+    }
+
+    private static List<Object> attributes(final Map<String, ?> attributes) {
+        List<Object> list = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : attributes.entrySet()) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            Object v = entry.getValue();
+            if (v instanceof Boolean) {
+                value.put("boolValue", v);
+            } else if (v instanceof Integer || v instanceof Long) {
+                value.put("intValue", v.toString());
+            } else if (v instanceof Number) {
+                value.put("doubleValue", v);
+            } else {
+                value.put("stringValue", String.valueOf(v));
+            }
+            Map<String, Object> attr = new LinkedHashMap<>();
+            attr.put("key", entry.getKey());
+            attr.put("value", value);
+            list.add(attr);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate with a token bucket, and the number of requests in flight, for all clients using the same
+ * base URL in this process. A request is in flight until its response body is closed. Installed as a network
+ * interceptor, so that form login requests are limited as well, and responses from the cache are not. When a 429 or
+ * 503 response has a Retry-After header, requests for the base URL are paused until then. Retrying the request is left
+ * to the {@link RetryInterceptor}, which only retries requests which are safe to repeat.
+ */
+public class RateLimitInterceptor
+        implements Interceptor
+{
+    /**
+     * Longest Retry-After delay which pauses requests or is waited for by a retry
+     */
+    public static final long MAX_RETRY_AFTER_SECONDS = 120;
+
+    private static final Map<String, Limiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final Limiter limiter;
+
+    public RateLimitInterceptor(final Limiter limiter) {
+        this.limiter = limiter;
+    }
+
+    /**
+     * @param baseUrl       base URL
+     * @param maxRps        max requests per second, or null for no limit
+     * @param maxConcurrent max requests in flight, or null for no limit
+     *
+     * @return interceptor using the limiter shared for the base URL and limits
+     */
+    public static RateLimitInterceptor forBaseUrl(final String baseUrl, final Double maxRps, final Integer maxConcurrent) {
+        String key = baseUrl + "|" + maxRps + "|" + maxConcurrent;
+        return new RateLimitInterceptor(LIMITERS.computeIfAbsent(key, k -> new Limiter(maxRps, maxConcurrent)));
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Response response = limiter.proceed(chain);
+        if (response.code() == 429 || response.code() == 503) {
+            long delayMillis = retryAfterMillis(response, System.currentTimeMillis());
+            if (delayMillis > 0 && delayMillis <= TimeUnit.SECONDS.toMillis(MAX_RETRY_AFTER_SECONDS)) {
+                limiter.pause(delayMillis);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * @param response response
+     * @param now      current time in millis
+     *
+     * @return delay in millis from the Retry-After header as seconds or an HTTP date, or -1 if not present or invalid
+     */
+    static long retryAfterMillis(final Response response, final long now) {
+        String value = response.header("Retry-After");
+        if (null == value) {
+            return -1;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return null != date ? Math.max(0, date.getTime() - now) : -1;
+        }
+    }
+
+    /**
+     * Token bucket and in flight limit for a base URL
+     */
+    public static class Limiter {
+        private final double rps;
+        private final double capacity;
+        private final Semaphore inflight;
+        private double tokens;
+        private long last;
+        private long pausedUntil;
+
+        /**
+         * @param maxRps        max requests per second, or null for no limit
+         * @param maxConcurrent max requests in flight, or null for no limit
+         */
+        public Limiter(final Double maxRps, final Integer maxConcurrent) {
+            if (null != maxRps && maxRps <= 0) {
+                throw new IllegalArgumentException("Max requests per second must be positive: " + maxRps);
+            }
+            if (null != maxConcurrent && maxConcurrent < 1) {
+                throw new IllegalArgumentException("Max concurrent requests must be at least 1: " + maxConcurrent);
+            }
+            this.rps = null != maxRps ? maxRps : 0;
+            //allow a burst of up to one second of requests
+            this.capacity = Math.max(1, this.rps);
+            this.tokens = capacity;
+            this.last = System.nanoTime();
+            this.inflight = null != maxConcurrent ? new Semaphore(maxConcurrent, true) : null;
+        }
+
+        Response proceed(final Chain chain) throws IOException {
+            try {
+                sleepNanos(reserve(System.nanoTime()));
+                if (null != inflight) {
+                    inflight.acquire();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for rate limit");
+            }
+            if (null == inflight) {
+                return chain.proceed(chain.request());
+            }
+            Response response = null;
+            try {
+                response = chain.proceed(chain.request());
+            } finally {
+                if (null == response || null == response.body()) {
+                    inflight.release();
+                }
+            }
+            if (null == response.body()) {
+                return response;
+            }
+            //the body is still being transferred, release when it is closed
+            return response.newBuilder().body(new OnCloseResponseBody(response.body(), inflight::release)).build();
+        }
+
+        /**
+         * Take a token, tokens may go negative to queue requests in order
+         *
+         * @param now current nano time
+         *
+         * @return nanos to wait before sending the request
+         */
+        synchronized long reserve(final long now) {
+            long wait = Math.max(0, pausedUntil - now);
+            if (rps > 0) {
+                tokens = Math.min(capacity, tokens + (now - last) * rps / 1e9);
+                last = now;
+                tokens -= 1;
+                if (tokens < 0) {
+                    wait = Math.max(wait, (long) (-tokens / rps * 1e9));
+                }
+            }
+            return wait;
+        }
+
+        /**
+         * Delay all requests which have not been sent until the delay has passed
+         *
+         * @param delayMillis delay
+         */
+        synchronized void pause(final long delayMillis) {
+            pausedUntil = Math.max(pausedUntil, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        }
+
+        private static void sleepNanos(final long nanos) throws InterruptedException {
+            if (nanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        }
+    }
+}
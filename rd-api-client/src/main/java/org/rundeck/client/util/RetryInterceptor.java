@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries idempotent requests, and POST requests marked with {@link #RETRY_POST}, after a connection failure, timeout,
+ * a 502, 503 or 504 response, or a 429 response with a Retry-After header. Waits with exponential backoff and jitter
+ * between attempts, or until the Retry-After time if that is later, and stops retrying when the total time for the call
+ * would exceed the limit. A response asking to retry after more than {@link
+ * RateLimitInterceptor#MAX_RETRY_AFTER_SECONDS} is returned. Only failures before the response is returned are
+ * retried, the response body is not buffered so that streamed responses are not held in memory. The number of
+ * attempts is added to the response in the {@link #ATTEMPTS_HEADER} header.
+ */
+public class RetryInterceptor
+        implements Interceptor
+{
+    /**
+     * Request header marking a POST request as safe to retry, it is not sent to the server
+     */
+    public static final String RETRY_HEADER = "X-Rd-Retry";
+    /**
+     * Header declaration for a retrofit method marking a POST request as safe to retry
+     */
+    public static final String RETRY_POST = RETRY_HEADER + ": true";
+    /**
+     * Response header with the number of attempts made
+     */
+    public static final String ATTEMPTS_HEADER = "X-Rd-Attempts";
+
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(Arrays.asList(
+            "GET",
+            "HEAD",
+            "OPTIONS",
+            "PUT",
+            "DELETE"
+    ));
+    private static final Set<Integer> RETRY_CODES = new HashSet<>(Arrays.asList(502, 503, 504));
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxTotalMillis;
+    private final Client.Logger logger;
+
+    /**
+     * @param maxRetries      max number of retries for a call
+     * @param baseDelayMillis delay before the first retry, doubled for each further retry
+     * @param maxDelayMillis  max delay between attempts
+     * @param maxTotalMillis  max total time for a call including retries
+     * @param logger          logger for retry warnings, or null
+     */
+    public RetryInterceptor(
+            final int maxRetries,
+            final long baseDelayMillis,
+            final long maxDelayMillis,
+            final long maxTotalMillis,
+            final Client.Logger logger
+    )
+    {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Retries cannot be negative: " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.maxTotalMillis = maxTotalMillis;
+        this.logger = logger;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        boolean marked = null != request.header(RETRY_HEADER);
+        if (marked) {
+            request = request.newBuilder().removeHeader(RETRY_HEADER).build();
+        }
+        if (maxRetries == 0 || !marked && !IDEMPOTENT_METHODS.contains(request.method())) {
+            return chain.proceed(request);
+        }
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            Response response = null;
+            IOException error = null;
+            long retryAfter = -1;
+            try {
+                response = chain.proceed(request);
+                if (response.code() == 429 || response.code() == 503) {
+                    retryAfter = RateLimitInterceptor.retryAfterMillis(response, System.currentTimeMillis());
+                }
+                if (!RETRY_CODES.contains(response.code()) && retryAfter < 0
+                    || retryAfter > TimeUnit.SECONDS.toMillis(RateLimitInterceptor.MAX_RETRY_AFTER_SECONDS)) {
+                    return withAttempts(response, attempt);
+                }
+            } catch (IOException e) {
+                if (!isRetryable(e) || chain.call().isCanceled()) {
+                    throw e;
+                }
+                error = e;
+            }
+            long delay = Math.max(delayMillis(attempt), retryAfter);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (attempt > maxRetries || elapsed + delay > maxTotalMillis || chain.call().isCanceled()) {
+                if (null != error) {
+                    throw error;
+                }
+                return withAttempts(response, attempt);
+            }
+            if (null != logger) {
+                logger.warning(String.format(
+                        "# Retrying %s %s after %s (attempt %d of %d) in %dms",
+                        request.method(),
+                        request.url(),
+                        null != error ? error.toString() : response.code(),
+                        attempt + 1,
+                        maxRetries + 1,
+                        delay
+                ));
+            }
+            if (null != response) {
+                response.close();
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting to retry");
+            }
+        }
+    }
+
+    /**
+     * @param attempt number of attempts made
+     *
+     * @return delay before the next attempt, exponential with equal jitter
+     */
+    long delayMillis(final int attempt) {
+        long delay = baseDelayMillis << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > maxDelayMillis) {
+            delay = maxDelayMillis;
+        }
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    static boolean isRetryable(final IOException e) {
+        if (e instanceof UnknownHostException || e instanceof SSLException) {
+            return false;
+        }
+        //other interrupted IO is a cancellation
+        return !(e instanceof InterruptedIOException) || e instanceof SocketTimeoutException;
+    }
+
+    private static Response withAttempts(final Response response, final int attempt) {
+        return response.newBuilder().header(ATTEMPTS_HEADER, Integer.toString(attempt)).build();
+    }
+}
@@ -4,11 +4,13 @@ import okhttp3.MediaType;
 import okhttp3.ResponseBody;
 import org.rundeck.client.api.model.ErrorDetail;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -234,6 +236,134 @@ public interface ServiceClient<T> extends Closeable {
     <U> WithErrorResponse<U> apiWithErrorResponseDowngradable(Function<T, Call<U>> func)
             throws IOException, Client.UnsupportedVersionDowngrade;
 
+    /**
+     * Enqueue the remote call, and complete with the expected type if successful. if unsuccessful
+     * complete exceptionally with relevant error detail, as for {@link #checkError(Call)}
+     *
+     * @param execute call
+     * @param <R>     expected result type
+     *
+     * @return future result, cancelling it cancels the call
+     */
+    default <R> CompletableFuture<R> checkErrorAsync(Call<R> execute) {
+        return enqueue(execute, this::checkError);
+    }
+
+    /**
+     * call a function using the service asynchronously
+     *
+     * @param func function using the service
+     * @param <U>  result type
+     *
+     * @return future result, completed exceptionally with {@link org.rundeck.client.api.RequestFailed} or an {@link
+     *         IOException} if an error occurs
+     */
+    default <U> CompletableFuture<U> apiCallAsync(Function<T, Call<U>> func) {
+        return checkErrorAsync(func.apply(getService()));
+    }
+
+    /**
+     * call a function using the service asynchronously
+     *
+     * @param func function using the service
+     * @param <U>  result type
+     *
+     * @return future response with re-readable error response
+     */
+    default <U> CompletableFuture<WithErrorResponse<U>> apiWithErrorResponseAsync(Function<T, Call<U>> func) {
+        return enqueue(func.apply(getService()), this::checkErrorResponse);
+    }
+
+    /**
+     * call a function using the service asynchronously
+     *
+     * @param func function using the service
+     * @param <U>  result type
+     *
+     * @return future result, completed exceptionally with {@link Client.UnsupportedVersionDowngrade} if the API
+     *         version can be downgraded
+     */
+    default <U> CompletableFuture<U> apiCallDowngradableAsync(Function<T, Call<U>> func) {
+        return enqueue(func.apply(getService()), this::checkErrorDowngradable);
+    }
+
+    /**
+     * call a function using the service asynchronously
+     *
+     * @param func function using the service
+     * @param <U>  result type
+     *
+     * @return future response with result type, completed exceptionally with {@link
+     *         Client.UnsupportedVersionDowngrade} if the API version can be downgraded
+     */
+    default <U> CompletableFuture<WithErrorResponse<U>> apiWithErrorResponseDowngradableAsync(
+            Function<T, Call<U>> func
+    )
+    {
+        //unsuccessful responses complete exceptionally as for checkErrorDowngradable
+        return enqueue(func.apply(getService()), response -> {
+            checkErrorDowngradable(response);
+            return new WithErrorResponse<U>() {
+                @Override
+                public Response<U> getResponse() {
+                    return response;
+                }
+
+                @Override
+                public RepeatableResponse getErrorBody() {
+                    return null;
+                }
+            };
+        });
+    }
+
+    /**
+     * Handles a response on the dispatcher thread
+     *
+     * @param <R> response type
+     * @param <X> result type
+     */
+    interface ResponseHandler<R, X> {
+        X handle(Response<R> response) throws Exception;
+    }
+
+    /**
+     * Enqueue the call, and complete the future with the result of the handler, or exceptionally with a call failure
+     * or an exception thrown by the handler
+     *
+     * @param call    call
+     * @param handler response handler
+     * @param <R>     response type
+     * @param <X>     result type
+     *
+     * @return future result, cancelling it cancels the call
+     */
+    static <R, X> CompletableFuture<X> enqueue(final Call<R> call, final ResponseHandler<R, X> handler) {
+        CompletableFuture<X> future = new CompletableFuture<X>() {
+            @Override
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                call.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        call.enqueue(new Callback<R>() {
+            @Override
+            public void onResponse(final Call<R> call, final Response<R> response) {
+                try {
+                    future.complete(handler.handle(response));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onFailure(final Call<R> call, final Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
     T getService();
 
     Retrofit getRetrofit();
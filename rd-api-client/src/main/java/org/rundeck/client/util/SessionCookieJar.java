@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Cookie jar stored in a file, so that a session created by password authentication can be reused by later processes.
+ * The file is encrypted with AES-GCM using a random key kept in {@link #KEY_FILE} in the same directory, and both
+ * files are only readable by the owner. The password is bound to the encrypted data with an HMAC keyed by the key,
+ * so cookies stored with another password, or which cannot be read, are ignored. Reading a session costs no key
+ * derivation, so it stays cheaper than logging in.
+ */
+public class SessionCookieJar
+        implements CookieJar
+{
+    /**
+     * Name of the key file in the session directory
+     */
+    public static final String KEY_FILE = "session.key";
+    private static final int VERSION = 2;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int KEY_LENGTH = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final File file;
+    private final File keyFile;
+    private final byte[] password;
+    private final List<Cookie> cookies = new ArrayList<>();
+    private SecretKeySpec key;
+
+    /**
+     * Load the stored cookies
+     *
+     * @param file     session file
+     * @param password password the session was created with
+     */
+    public SessionCookieJar(final File file, final String password) {
+        this.file = file;
+        this.keyFile = new File(file.getAbsoluteFile().getParentFile(), KEY_FILE);
+        this.password = password.getBytes(StandardCharsets.UTF_8);
+        cookies.addAll(load());
+    }
+
+    /**
+     * @return true if any unexpired cookies are stored
+     */
+    public synchronized boolean hasCookies() {
+        removeExpired();
+        return !cookies.isEmpty();
+    }
+
+    @Override
+    public synchronized void saveFromResponse(final HttpUrl url, final List<Cookie> received) {
+        if (received.isEmpty()) {
+            return;
+        }
+        for (Cookie cookie : received) {
+            cookies.removeIf(c -> c.name().equals(cookie.name())
+                                  && c.domain().equals(cookie.domain())
+                                  && c.path().equals(cookie.path()));
+            cookies.add(cookie);
+        }
+        removeExpired();
+        try {
+            store();
+        } catch (IOException | GeneralSecurityException ignored) {
+            //the session is still usable in this process
+        }
+    }
+
+    @Override
+    public synchronized List<Cookie> loadForRequest(final HttpUrl url) {
+        removeExpired();
+        List<Cookie> result = new ArrayList<>();
+        for (Cookie cookie : cookies) {
+            if (cookie.matches(url)) {
+                result.add(cookie);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all cookies and the file
+     */
+    public synchronized void clear() throws IOException {
+        cookies.clear();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        for (Iterator<Cookie> iterator = cookies.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().expiresAt() < now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private List<Cookie> load() {
+        List<Cookie> result = new ArrayList<>();
+        if (!file.isFile()) {
+            return result;
+        }
+        String text;
+        try {
+            text = new String(decrypt(Files.readAllBytes(file.toPath())), StandardCharsets.UTF_8);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            //treat unreadable session as empty
+            return result;
+        }
+        for (String line : text.split("\n")) {
+            int i = line.indexOf('\t');
+            if (i < 1) {
+                continue;
+            }
+            HttpUrl url = HttpUrl.parse(line.substring(0, i));
+            Cookie cookie = null != url ? Cookie.parse(url, line.substring(i + 1)) : null;
+            if (null != cookie) {
+                result.add(cookie);
+            }
+        }
+        return result;
+    }
+
+    private void store() throws IOException, GeneralSecurityException {
+        StringBuilder sb = new StringBuilder();
+        for (Cookie cookie : cookies) {
+            HttpUrl url = new HttpUrl.Builder()
+                    .scheme(cookie.secure() ? "https" : "http")
+                    .host(cookie.domain())
+                    .encodedPath(cookie.path())
+                    .build();
+            //session cookies are stored as well, they expire when the server session does
+            sb.append(url).append('\t').append(cookie).append('\n');
+        }
+        writeOwnerOnly(file, encrypt(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Atomically replace the file with data only readable by the owner
+     */
+    private static void writeOwnerOnly(final File target, final byte[] data) throws IOException {
+        File dir = target.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        File temp = File.createTempFile(target.getName(), ".tmp", dir);
+        try {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.setPosixFilePermissions(temp.toPath(), PosixFilePermissions.fromString("rw-------"));
+            }
+            Files.write(temp.toPath(), data);
+            Files.move(
+                    temp.toPath(),
+                    target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    byte[] encrypt(final byte[] data) throws GeneralSecurityException, IOException {
+        SecretKeySpec secret = key(true);
+        byte[] iv = new byte[IV_LENGTH];
+        RANDOM.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, secret, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(passwordCheck(secret));
+        byte[] encrypted = cipher.doFinal(data);
+        return ByteBuffer.allocate(1 + IV_LENGTH + encrypted.length)
+                         .put((byte) VERSION)
+                         .put(iv)
+                         .put(encrypted)
+                         .array();
+    }
+
+    byte[] decrypt(final byte[] data) throws GeneralSecurityException, IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (data.length < 1 + IV_LENGTH || buffer.get() != VERSION) {
+            throw new GeneralSecurityException("Unsupported session file format");
+        }
+        SecretKeySpec secret = key(false);
+        if (null == secret) {
+            throw new GeneralSecurityException("Session key not found: " + keyFile);
+        }
+        byte[] iv = new byte[IV_LENGTH];
+        buffer.get(iv);
+        byte[] encrypted = new byte[buffer.remaining()];
+        buffer.get(encrypted);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, secret, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(passwordCheck(secret));
+        return cipher.doFinal(encrypted);
+    }
+
+    /**
+     * @return HMAC of the password keyed by the session key, authenticated with the data but not stored
+     */
+    private byte[] passwordCheck(final SecretKeySpec secret) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getEncoded(), "HmacSHA256"));
+        return mac.doFinal(password);
+    }
+
+    /**
+     * @param create true to create the key file if it does not exist or is invalid
+     *
+     * @return key from the key file, or null if it does not exist
+     */
+    private SecretKeySpec key(final boolean create) throws IOException, GeneralSecurityException {
+        if (null == key) {
+            byte[] bytes = keyFile.isFile() ? Files.readAllBytes(keyFile.toPath()) : null;
+            if (null == bytes || bytes.length != KEY_LENGTH) {
+                if (!create) {
+                    return null;
+                }
+                bytes = new byte[KEY_LENGTH];
+                RANDOM.nextBytes(bytes);
+                writeOwnerOnly(keyFile, bytes);
+            }
+            key = new SecretKeySpec(bytes, "AES");
+        }
+        return key;
+    }
+}
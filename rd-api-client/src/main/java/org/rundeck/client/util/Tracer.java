@@ -0,0 +1,367 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal tracer producing spans compatible with OpenTelemetry, which are passed to an {@link Exporter} in batches:
+ * when the number of finished spans reaches the batch size, and on flush or close. Only one batch is kept in memory,
+ * so a long-lived client does not accumulate spans; a batch which fails to export is dropped and counted. A root span
+ * can be set, e.g. for a CLI command, which is the parent of spans started on any thread without an explicit parent.
+ * The trace can continue a W3C traceparent, e.g. from a pipeline.
+ */
+public class Tracer
+        implements Closeable
+{
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Pattern TRACEPARENT = Pattern.compile("^[0-9a-f]{2}-([0-9a-f]{32})-([0-9a-f]{16})-[0-9a-f]{2}$");
+    /**
+     * Span kind internal
+     */
+    public static final int KIND_INTERNAL = 1;
+    /**
+     * Span kind client
+     */
+    public static final int KIND_CLIENT = 3;
+    /**
+     * Status unset
+     */
+    public static final int STATUS_UNSET = 0;
+    /**
+     * Status ok
+     */
+    public static final int STATUS_OK = 1;
+    /**
+     * Status error
+     */
+    public static final int STATUS_ERROR = 2;
+    /**
+     * Default number of finished spans exported together
+     */
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    private final String serviceName;
+    private final Exporter exporter;
+    private final String traceId;
+    private final String remoteParentId;
+    private final int batchSize;
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<Span> finished = new ArrayList<>();
+    private volatile Span root;
+
+    /**
+     * Receives finished spans
+     */
+    public interface Exporter {
+        /**
+         * @param serviceName service name
+         * @param spans       finished spans
+         *
+         * @throws IOException on error
+         */
+        void export(String serviceName, List<Span> spans) throws IOException;
+    }
+
+    /**
+     * @param serviceName service name resource attribute
+     * @param exporter    exporter
+     * @param traceparent W3C traceparent of a parent span, or null to start a new trace
+     */
+    public Tracer(final String serviceName, final Exporter exporter, final String traceparent) {
+        this(serviceName, exporter, traceparent, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param serviceName service name resource attribute
+     * @param exporter    exporter
+     * @param traceparent W3C traceparent of a parent span, or null to start a new trace
+     * @param batchSize   number of finished spans to export together
+     */
+    public Tracer(final String serviceName, final Exporter exporter, final String traceparent, final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.serviceName = serviceName;
+        this.exporter = exporter;
+        Matcher matcher = null != traceparent ? TRACEPARENT.matcher(traceparent.trim()) : null;
+        if (null != matcher && matcher.matches()) {
+            this.traceId = matcher.group(1);
+            this.remoteParentId = matcher.group(2);
+        } else {
+            this.traceId = randomHex(16);
+            this.remoteParentId = null;
+        }
+    }
+
+    /**
+     * Start a span, the parent is the root span if set
+     *
+     * @param name span name
+     * @param kind span kind
+     *
+     * @return new span
+     */
+    public Span start(final String name, final int kind) {
+        Span parent = root;
+        return new Span(this, name, kind, null != parent ? parent.spanId : remoteParentId);
+    }
+
+    /**
+     * Start a span and use it as the parent of spans started later, until it ends
+     *
+     * @param name span name
+     * @param kind span kind
+     *
+     * @return new span
+     */
+    public Span startRoot(final String name, final int kind) {
+        Span span = start(name, kind);
+        root = span;
+        return span;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    private void finished(final Span span) {
+        List<Span> batch = null;
+        synchronized (this) {
+            if (root == span) {
+                root = null;
+            }
+            finished.add(span);
+            if (finished.size() >= batchSize) {
+                batch = new ArrayList<>(finished);
+                finished.clear();
+            }
+        }
+        if (null != batch) {
+            try {
+                exporter.export(serviceName, batch);
+            } catch (IOException | RuntimeException e) {
+                //the span ends on a call thread, which should not fail because of tracing
+                dropped.addAndGet(batch.size());
+            }
+        }
+    }
+
+    /**
+     * @return finished spans which have not been exported
+     */
+    public synchronized List<Span> getFinished() {
+        return new ArrayList<>(finished);
+    }
+
+    /**
+     * @return number of spans dropped because a batch failed to export
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Export the finished spans
+     */
+    public void flush() throws IOException {
+        List<Span> spans;
+        synchronized (this) {
+            spans = new ArrayList<>(finished);
+            finished.clear();
+        }
+        if (!spans.isEmpty()) {
+            exporter.export(serviceName, spans);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private static String randomHex(final int bytes) {
+        byte[] data = new byte[bytes];
+        RANDOM.nextBytes(data);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : data) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A timed operation
+     */
+    public static class Span {
+        private final Tracer tracer;
+        private final String traceId;
+        private final String spanId;
+        private final String parentSpanId;
+        private final int kind;
+        private final long startNanos;
+        private final long startEpochNanos;
+        private final Map<String, Object> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+        private String name;
+        private long endEpochNanos;
+        private int statusCode = STATUS_UNSET;
+        private String statusMessage;
+        private boolean ended;
+
+        Span(final Tracer tracer, final String name, final int kind, final String parentSpanId) {
+            this.tracer = tracer;
+            this.traceId = tracer.traceId;
+            this.spanId = randomHex(8);
+            this.parentSpanId = parentSpanId;
+            this.name = name;
+            this.kind = kind;
+            this.startNanos = System.nanoTime();
+            this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        }
+
+        /**
+         * @param key   attribute name
+         * @param value string, boolean, or integer number value
+         *
+         * @return this span
+         */
+        public Span attribute(final String key, final Object value) {
+            if (null != value) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * @param name new span name
+         *
+         * @return this span
+         */
+        public Span name(final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param code    status code
+         * @param message message for an error status, or null
+         *
+         * @return this span
+         */
+        public Span status(final int code, final String message) {
+            this.statusCode = code;
+            this.statusMessage = message;
+            return this;
+        }
+
+        /**
+         * Set an error status from an exception
+         *
+         * @param t exception
+         *
+         * @return this span
+         */
+        public Span error(final Throwable t) {
+            attribute("exception.type", t.getClass().getName());
+            attribute("exception.message", t.getMessage());
+            return status(STATUS_ERROR, null != t.getMessage() ? t.getMessage() : t.toString());
+        }
+
+        /**
+         * End the span, ending more than once has no effect
+         */
+        public void end() {
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+                endEpochNanos = startEpochNanos + (System.nanoTime() - startNanos);
+            }
+            tracer.finished(this);
+        }
+
+        /**
+         * @return W3C traceparent header value for this span
+         */
+        public String traceparent() {
+            return "00-" + traceId + "-" + spanId + "-01";
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public String getSpanId() {
+            return spanId;
+        }
+
+        /**
+         * @return parent span ID, or null
+         */
+        public String getParentSpanId() {
+            return parentSpanId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getKind() {
+            return kind;
+        }
+
+        public long getStartEpochNanos() {
+            return startEpochNanos;
+        }
+
+        public long getEndEpochNanos() {
+            return endEpochNanos;
+        }
+
+        public Map<String, Object> getAttributes() {
+            synchronized (attributes) {
+                return new LinkedHashMap<>(attributes);
+            }
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getStatusMessage() {
+            return statusMessage;
+        }
+
+        @Override
+        public String toString() {
+            return "Span{" + name + " " + traceId + "/" + spanId + "}";
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HTTP;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Creates a client span for each HTTP call, and propagates it to the server with the W3C traceparent header. The span
+ * is named by the method and the templated path of the retrofit API method, and records the status and the number of
+ * retries made by the {@link RetryInterceptor}. The span ends when the response body is closed, so it includes the
+ * time taken to read the body.
+ */
+public class TracingInterceptor
+        implements Interceptor
+{
+    /**
+     * W3C trace context header
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingInterceptor(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        String template = pathTemplate(invocation);
+        Tracer.Span span = tracer.start(
+                request.method() + " " + (null != template ? template : request.url().encodedPath()),
+                Tracer.KIND_CLIENT
+        );
+        span.attribute("http.request.method", request.method())
+            .attribute("server.address", request.url().host())
+            .attribute("server.port", request.url().port())
+            .attribute("url.template", template);
+        if (null != invocation) {
+            Method method = invocation.method();
+            span.attribute("code.function", method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        }
+        Response response;
+        try {
+            response = chain.proceed(
+                    request.newBuilder().header(TRACEPARENT, span.traceparent()).build()
+            );
+        } catch (IOException | RuntimeException e) {
+            span.error(e);
+            span.end();
+            throw e;
+        }
+        span.attribute("http.response.status_code", response.code());
+        String attempts = response.header(RetryInterceptor.ATTEMPTS_HEADER);
+        if (null != attempts) {
+            span.attribute("http.request.resend_count", Integer.parseInt(attempts) - 1);
+        }
+        if (response.code() >= 400) {
+            span.status(Tracer.STATUS_ERROR, null);
+        }
+        if (null == response.body()) {
+            span.end();
+            return response;
+        }
+        //end the span when the body is closed, so that it includes reading the body
+        return response.newBuilder().body(new OnCloseResponseBody(response.body(), span::end)).build();
+    }
+
+    /**
+     * @param invocation retrofit invocation, or null
+     *
+     * @return path template declared by the HTTP method annotation, or null
+     */
+    static String pathTemplate(final Invocation invocation) {
+        if (null == invocation) {
+            return null;
+        }
+        for (Annotation annotation : invocation.method().getAnnotations()) {
+            String value = null;
+            if (annotation instanceof GET) {
+                value = ((GET) annotation).value();
+            } else if (annotation instanceof POST) {
+                value = ((POST) annotation).value();
+            } else if (annotation instanceof PUT) {
+                value = ((PUT) annotation).value();
+            } else if (annotation instanceof DELETE) {
+                value = ((DELETE) annotation).value();
+            } else if (annotation instanceof PATCH) {
+                value = ((PATCH) annotation).value();
+            } else if (annotation instanceof HEAD) {
+                value = ((HEAD) annotation).value();
+            } else if (annotation instanceof HTTP) {
+                value = ((HTTP) annotation).path();
+            }
+            if (null != value && !value.isEmpty()) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
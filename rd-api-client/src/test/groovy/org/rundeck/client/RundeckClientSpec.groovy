@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client
+
+import okhttp3.ConnectionPool
+import okhttp3.Dispatcher
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import org.rundeck.client.util.RdClientConfig
+import spock.lang.Specification
+
+class RundeckClientSpec extends Specification {
+    def "clients share connection pool and dispatcher"() {
+        given:
+        def pool = new ConnectionPool()
+        def dispatcher = new Dispatcher()
+
+        when:
+        def client1 = RundeckClient.builder().baseUrl('http://localhost:4440').tokenAuth('abc').
+            connectionPool(pool).dispatcher(dispatcher).build()
+        def client2 = RundeckClient.builder().baseUrl('http://localhost:4440').tokenAuth('abc').
+            connectionPool(pool).dispatcher(dispatcher).apiVersion(20).build()
+        def okhttp1 = (OkHttpClient) client1.retrofit.callFactory()
+        def okhttp2 = (OkHttpClient) client2.retrofit.callFactory()
+
+        then:
+        okhttp1.connectionPool().is(pool)
+        okhttp2.connectionPool().is(pool)
+        okhttp1.dispatcher().is(dispatcher)
+        okhttp2.dispatcher().is(dispatcher)
+
+        when:
+        client1.close()
+
+        then: "shared dispatcher is not shut down"
+        !dispatcher.executorService().isShutdown()
+    }
+
+    def "client pool and dispatcher settings"() {
+        when:
+        def client = RundeckClient.builder().baseUrl('http://localhost:4440').tokenAuth('abc').
+            connectionPool(2, 30L).maxRequests(10).maxRequestsPerHost(3).http2(false).build()
+        def okhttp = (OkHttpClient) client.retrofit.callFactory()
+
+        then:
+        okhttp.dispatcher().maxRequests == 10
+        okhttp.dispatcher().maxRequestsPerHost == 3
+        okhttp.protocols() == [Protocol.HTTP_1_1]
+
+        when:
+        client.close()
+
+        then:
+        okhttp.dispatcher().executorService().isShutdown()
+    }
+
+    def "shared pool and dispatcher from config"() {
+        given:
+        def config = Mock(RdClientConfig) {
+            getLong(RundeckClient.ENV_HTTP_MAX_REQUESTS, null) >> 8L
+            getLong(RundeckClient.ENV_HTTP_MAX_REQUESTS_PER_HOST, null) >> 4L
+        }
+
+        when:
+        def dispatcher = RundeckClient.dispatcher(config)
+        def pool = RundeckClient.connectionPool(config)
+
+        then:
+        dispatcher.maxRequests == 8
+        dispatcher.maxRequestsPerHost == 4
+        pool != null
+    }
+}
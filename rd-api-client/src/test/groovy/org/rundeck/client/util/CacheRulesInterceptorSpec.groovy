@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import okhttp3.Cache
+import okhttp3.MediaType
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import spock.lang.Specification
+
+class CacheRulesInterceptorSpec extends Specification {
+    MockWebServer server
+    File dir
+    Cache cache
+
+    def setup() {
+        server = new MockWebServer()
+        server.start()
+        dir = File.createTempDir()
+        cache = new Cache(dir, 1024 * 1024)
+    }
+
+    def cleanup() {
+        cache.close()
+        server.shutdown()
+        dir.deleteDir()
+    }
+
+    OkHttpClient client(Long maxAge, boolean bypass = false) {
+        def builder = new OkHttpClient.Builder().
+            cache(cache).
+            addNetworkInterceptor(new CacheRulesInterceptor(CacheRulesInterceptor.DEFAULT_RULES, maxAge, cache))
+        if (bypass) {
+            builder.addInterceptor(new StaticHeaderInterceptor('Cache-Control', 'no-cache'))
+        }
+        builder.build()
+    }
+
+    String get(OkHttpClient client, String path) {
+        client.newCall(new Request.Builder().url(server.url(path)).header('Accept', 'application/json').build()).
+            execute().
+            withCloseable { it.body().string() }
+    }
+
+    def "freshness rules"() {
+        expect:
+        new CacheRulesInterceptor(CacheRulesInterceptor.DEFAULT_RULES, maxAge).freshness(path) == expected
+
+        where:
+        path                                  | maxAge | expected
+        '/api/41/projects'                    | null   | 60
+        '/rundeck/api/41/projects'            | null   | 60
+        '/api/41/project/p1/resources'        | null   | 30
+        '/api/41/project/p1/jobs'             | null   | 30
+        '/api/41/system/info'                 | null   | 60
+        '/api/41/user/roles'                  | null   | 300
+        '/api/41/user/roles'                  | 5      | 5
+        '/api/41/project/p1/executions'       | null   | null
+        '/api/41/project/p1/jobs/export'      | null   | null
+    }
+
+    def "fresh response is served from cache"() {
+        given:
+        server.enqueue(new MockResponse().setBody('[1]').addHeader('Cache-Control', 'no-cache'))
+        def client = client(null)
+
+        when:
+        def first = get(client, '/api/41/projects')
+        def second = get(client, '/api/41/projects')
+
+        then:
+        first == '[1]'
+        second == '[1]'
+        server.requestCount == 1
+    }
+
+    def "other endpoints are not cached"() {
+        given:
+        server.enqueue(new MockResponse().setBody('[1]'))
+        server.enqueue(new MockResponse().setBody('[2]'))
+        def client = client(null)
+
+        expect:
+        get(client, '/api/41/project/p1/executions') == '[1]'
+        get(client, '/api/41/project/p1/executions') == '[2]'
+        server.requestCount == 2
+    }
+
+    def "stale response is revalidated with etag"() {
+        given:
+        server.enqueue(new MockResponse().setBody('[1]').addHeader('ETag', '"v1"'))
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader('ETag', '"v1"'))
+        def client = client(0L)
+
+        when:
+        def first = get(client, '/api/41/projects')
+        def second = get(client, '/api/41/projects')
+
+        then:
+        first == '[1]'
+        second == '[1]'
+        server.requestCount == 2
+        server.takeRequest().getHeader('If-None-Match') == null
+        server.takeRequest().getHeader('If-None-Match') == '"v1"'
+    }
+
+    def "bypass revalidates fresh responses"() {
+        given:
+        server.enqueue(new MockResponse().setBody('[1]'))
+        server.enqueue(new MockResponse().setBody('[2]'))
+        def client = client(null, true)
+
+        expect:
+        get(client, '/api/41/projects') == '[1]'
+        get(client, '/api/41/projects') == '[2]'
+        server.requestCount == 2
+    }
+
+    def "paths changed by a request"() {
+        expect:
+        def pattern = CacheRulesInterceptor.invalidates(path)
+        (null != pattern && pattern.matcher(cached).matches()) == expected
+
+        where:
+        path                                | cached                          | expected
+        '/api/41/project/p1/jobs/import'    | '/api/41/project/p1/jobs'       | true
+        '/api/41/project/p1/jobs/import'    | '/api/40/project/p1/resources'  | true
+        '/api/41/project/p1/jobs/import'    | '/api/41/projects'              | true
+        '/api/41/project/p1/jobs/import'    | '/api/41/project/p2/jobs'       | false
+        '/api/41/project/p1'                | '/api/41/project/p1/jobs'       | true
+        '/api/41/projects'                  | '/api/41/projects'              | true
+        '/api/41/jobs/delete'               | '/api/41/project/p2/jobs'       | true
+        '/api/41/job/abc/run'               | '/api/41/project/p2/jobs'       | true
+        '/api/41/job/abc/run'               | '/api/41/projects'              | false
+        '/api/41/execution/1/abort'         | '/api/41/project/p1/jobs'       | false
+    }
+
+    def "project change removes cached project entries"() {
+        given:
+        server.enqueue(new MockResponse().setBody('[1]'))
+        server.enqueue(new MockResponse().setBody('[2]'))
+        server.enqueue(new MockResponse().setBody('{}'))
+        server.enqueue(new MockResponse().setBody('[3]'))
+        def client = client(null)
+
+        when:
+        def first = get(client, '/api/41/project/p1/jobs')
+        def other = get(client, '/api/41/project/p2/jobs')
+        client.newCall(new Request.Builder().
+            url(server.url('/api/41/project/p1/jobs/import')).
+            post(RequestBody.create('', MediaType.parse('application/yaml'))).
+            build()
+        ).execute().close()
+        def second = get(client, '/api/41/project/p1/jobs')
+        def otherCached = get(client, '/api/41/project/p2/jobs')
+
+        then:
+        first == '[1]'
+        other == '[2]'
+        second == '[3]'
+        otherCached == '[2]'
+        server.requestCount == 4
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.rundeck.client.RundeckClient
+import org.rundeck.client.api.AuthorizationFailed
+import org.rundeck.client.api.RequestFailed
+import org.rundeck.client.api.RundeckApi
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+
+class ClientAsyncSpec extends Specification {
+    MockWebServer server
+    Client<RundeckApi> client
+
+    def setup() {
+        server = new MockWebServer()
+        server.start()
+        client = RundeckClient.builder().
+            baseUrl(server.url('/api/29/').toString()).
+            tokenAuth('abc').
+            allowVersionDowngrade(true).
+            logger(Mock(Client.Logger)).
+            build()
+    }
+
+    def cleanup() {
+        client.close()
+        server.shutdown()
+    }
+
+    def "api call async result"() {
+        given:
+        server.enqueue(
+            new MockResponse().
+                setBody('[{"name":"p1"},{"name":"p2"}]').
+                addHeader('content-type', 'application/json')
+        )
+
+        when:
+        def result = client.apiCallAsync { it.listProjects() }.get(10, TimeUnit.SECONDS)
+
+        then:
+        result*.name == ['p1', 'p2']
+        server.takeRequest().path == '/api/29/projects'
+    }
+
+    def "api call async error"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(code))
+
+        when:
+        client.apiCallAsync { it.listProjects() }.get(10, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException e = thrown()
+        expectType.isInstance(e.cause)
+        e.cause.statusCode == code
+
+        where:
+        code | expectType
+        403  | AuthorizationFailed
+        404  | RequestFailed
+        500  | RequestFailed
+    }
+
+    def "api call async unsupported version downgrade"() {
+        given:
+        server.enqueue(
+            new MockResponse().
+                setResponseCode(400).
+                setBody(
+                    '{"error":true,"apiversion":25,"errorCode":"api.error.api-version.unsupported","message":"no"}'
+                ).
+                addHeader('content-type', 'application/json')
+        )
+
+        when:
+        client.apiCallDowngradableAsync { it.listProjects() }.get(10, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof Client.UnsupportedVersionDowngrade
+        e.cause.supportedVersion == 25
+        e.cause.requestedVersion == 29
+    }
+
+    def "api with error response async"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(400).setBody('bad').addHeader('content-type', 'text/plain'))
+
+        when:
+        def response = client.apiWithErrorResponseDowngradableAsync { it.listProjects() }.get(10, TimeUnit.SECONDS)
+
+        then:
+        response.error400
+        response.errorBody.repeatBody().string() == 'bad'
+    }
+}
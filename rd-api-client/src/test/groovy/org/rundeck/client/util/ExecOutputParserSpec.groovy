@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import org.rundeck.client.api.model.ExecLog
+import spock.lang.Specification
+
+class ExecOutputParserSpec extends Specification {
+    static final String COMPACTED = '''{
+  "id": "5418",
+  "offset": 123,
+  "lastModified": 456,
+  "execState": "running",
+  "compacted": true,
+  "compactedAttr": "log",
+  "entries": [
+    {"log":"test1","time":"13:02","level":"INFO","user":"bob","node":"node1","stepctx":"1"},
+    "test2",
+    {"log":"test3","level":"DEBUG","node":"node2", "stepctx": "2"}
+  ],
+  "completed": false
+}'''
+
+    def "parse streams decompacted entries"() {
+        given:
+        List<ExecLog> received = []
+
+        when:
+        def result = ExecOutputParser.parse(new ByteArrayInputStream(COMPACTED.bytes), false, { received << it })
+
+        then:
+        result.id == '5418'
+        result.offset == 123
+        result.lastModified == 456
+        result.execState == 'running'
+        !result.completed
+        result.entries == null
+        result.entryCount() == 3
+        received*.toMap() == [
+                [log: 'test1', time: '13:02', level: 'INFO', user: 'bob', node: 'node1', command: null, stepctx: '1'],
+                [log: 'test2', time: '13:02', level: 'INFO', user: 'bob', node: 'node1', command: null, stepctx: '1'],
+                [log: 'test3', time: '13:02', level: 'DEBUG', user: 'bob', node: 'node2', command: null, stepctx: '2'],
+        ]
+    }
+
+    def "parse in chunks"() {
+        given:
+        List<List<ExecLog>> chunks = []
+
+        when:
+        ExecOutputParser.parse(new ByteArrayInputStream(COMPACTED.bytes), true, 2, { chunks << it })
+
+        then:
+        chunks*.size() == [2, 1]
+        chunks.flatten()*.log == ['test1', 'test2', 'test3']
+    }
+
+    def "parse without entries calls receiver once"() {
+        given:
+        List<List<ExecLog>> chunks = []
+
+        when:
+        def result = ExecOutputParser.parse(
+                new ByteArrayInputStream('{"unmodified":true,"entries":[]}'.bytes),
+                true,
+                10,
+                { chunks << it }
+        )
+
+        then:
+        result.unmodified
+        result.entryCount() == 0
+        chunks == [[]]
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import groovy.json.JsonSlurper
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import spock.lang.Specification
+
+class HttpMetricsSpec extends Specification {
+    MockWebServer server
+
+    def setup() {
+        server = new MockWebServer()
+        server.start()
+    }
+
+    def cleanup() {
+        server.shutdown()
+    }
+
+    def "records calls and notifies listener"() {
+        given:
+        def metrics = new HttpMetrics(true)
+        def received = []
+        metrics.addListener({ received << it } as HttpMetrics.Listener)
+        def client = new OkHttpClient.Builder().eventListenerFactory(metrics.eventListenerFactory()).build()
+        server.enqueue(new MockResponse().setResponseCode(200).setBody('hello'))
+        server.enqueue(new MockResponse().setResponseCode(404).setBody('missing'))
+
+        when:
+        client.newCall(new Request.Builder().url(server.url('/api/41/projects?token=secret')).build())
+              .execute().withCloseable { it.body().string() }
+        client.newCall(new Request.Builder().url(server.url('/api/41/other')).build())
+              .execute().withCloseable { it.body().string() }
+
+        then:
+        metrics.calls.size() == 2
+        received == metrics.calls
+        metrics.calls[0].method == 'GET'
+        metrics.calls[0].status == 200
+        metrics.calls[0].url == server.url('/api/41/projects').toString()
+        !metrics.calls[0].connectionReused
+        metrics.calls[0].bytesReceived > 5
+        metrics.calls[0].bytesSent > 0
+        metrics.calls[1].status == 404
+        metrics.calls[1].connectionReused
+        metrics.calls[1].error == null
+    }
+
+    def "reports"() {
+        given:
+        def metrics = new HttpMetrics(true)
+        def client = new OkHttpClient.Builder().eventListenerFactory(metrics.eventListenerFactory()).build()
+        server.enqueue(new MockResponse().setResponseCode(200).setBody('hello'))
+
+        when:
+        client.newCall(new Request.Builder().url(server.url('/api/41/projects')).build())
+              .execute().withCloseable { it.body().string() }
+        def json = new JsonSlurper().parseText(metrics.jsonReport())
+        def table = metrics.tableReport().readLines()
+
+        then:
+        json.size() == 1
+        json[0].status == 200
+        json[0].method == 'GET'
+        json[0].totalMillis >= 0
+        table.size() == 3
+        table[0].startsWith('METHOD')
+        table[1].contains('/api/41/projects')
+        table[2].startsWith('TOTAL')
+    }
+
+    def "listener only without collecting"() {
+        given:
+        def metrics = new HttpMetrics(false)
+        def received = []
+        metrics.addListener({ received << it } as HttpMetrics.Listener)
+        def client = new OkHttpClient.Builder().eventListenerFactory(metrics.eventListenerFactory()).build()
+        server.enqueue(new MockResponse().setResponseCode(200).setBody('hello'))
+
+        when:
+        client.newCall(new Request.Builder().url(server.url('/api/41/projects')).build())
+              .execute().withCloseable { it.body().string() }
+
+        then:
+        received.size() == 1
+        metrics.calls.isEmpty()
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.Response
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.rundeck.client.RundeckClient
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class RateLimitInterceptorSpec extends Specification {
+
+    def "token bucket reserves at the configured rate"() {
+        given:
+        def limiter = new RateLimitInterceptor.Limiter(2d, null)
+        long now = System.nanoTime()
+
+        expect: "burst up to capacity, then queued at the rate"
+        limiter.reserve(now) == 0
+        limiter.reserve(now) == 0
+        limiter.reserve(now) == TimeUnit.MILLISECONDS.toNanos(500)
+        limiter.reserve(now) == TimeUnit.MILLISECONDS.toNanos(1000)
+        limiter.reserve(now + TimeUnit.SECONDS.toNanos(2)) == 0
+    }
+
+    def "no rate limit"() {
+        given:
+        def limiter = new RateLimitInterceptor.Limiter(null, 2)
+
+        expect:
+        (1..10).every { limiter.reserve(System.nanoTime()) == 0 }
+    }
+
+    def "request is in flight until the response body is closed"() {
+        given:
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setBody('abc'))
+        server.start()
+        def limiter = new RateLimitInterceptor.Limiter(null, 1)
+        def client = new OkHttpClient.Builder().addNetworkInterceptor(new RateLimitInterceptor(limiter)).build()
+
+        when:
+        def response = client.newCall(new Request.Builder().url(server.url('/')).build()).execute()
+        def beforeClose = limiter.inflight.availablePermits()
+        def body = response.body().string()
+
+        then:
+        body == 'abc'
+        beforeClose == 0
+        limiter.inflight.availablePermits() == 1
+
+        cleanup:
+        server.shutdown()
+    }
+
+    def "retry after header"() {
+        given:
+        def response = new Response.Builder().
+            request(new Request.Builder().url('http://localhost/').build()).
+            protocol(Protocol.HTTP_1_1).
+            code(503).
+            message('unavailable').
+            header('Retry-After', value).
+            build()
+
+        expect:
+        RateLimitInterceptor.retryAfterMillis(response, 1445412480000L) == expected
+
+        where:
+        value                           | expected
+        '3'                             | 3000
+        'Wed, 21 Oct 2015 07:28:10 GMT' | 10000
+        'Wed, 21 Oct 2015 07:27:00 GMT' | 0
+        'soon'                          | -1
+    }
+
+    def "request is retried after Retry-After when retry is enabled"() {
+        given:
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setResponseCode(429).addHeader('Retry-After', '1'))
+        server.enqueue(
+            new MockResponse().setBody('[{"name":"p1"}]').addHeader('content-type', 'application/json')
+        )
+        server.start()
+        def client = RundeckClient.builder().
+            baseUrl(server.url('/api/29/').toString()).
+            tokenAuth('abc').
+            rateLimit(null, 4).
+            retry(1, 1L, 10L, 10L).
+            build()
+
+        when:
+        long start = System.currentTimeMillis()
+        def result = client.apiCall { it.listProjects() }
+
+        then:
+        result*.name == ['p1']
+        server.requestCount == 2
+        System.currentTimeMillis() - start >= 1000
+
+        cleanup:
+        client?.close()
+        server.shutdown()
+    }
+
+    def "POST is not retried after Retry-After"() {
+        given:
+        def server = new MockWebServer()
+        server.enqueue(new MockResponse().setResponseCode(429).addHeader('Retry-After', '1'))
+        server.enqueue(new MockResponse().setBody('ok'))
+        server.start()
+        def client = new OkHttpClient.Builder().
+            addInterceptor(new RetryInterceptor(3, 1, 10, 10000, null)).
+            addNetworkInterceptor(new RateLimitInterceptor(new RateLimitInterceptor.Limiter(null, 4))).
+            build()
+
+        when:
+        def response = client.newCall(
+            new Request.Builder().url(server.url('/test')).post(RequestBody.create('{}', null)).build()
+        ).execute()
+
+        then:
+        response.code() == 429
+        server.requestCount == 1
+
+        cleanup:
+        response?.close()
+        server.shutdown()
+    }
+}
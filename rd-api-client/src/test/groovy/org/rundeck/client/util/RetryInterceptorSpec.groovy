@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import okhttp3.MediaType
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.RequestBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.SocketPolicy
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class RetryInterceptorSpec extends Specification {
+    MockWebServer server
+
+    def setup() {
+        server = new MockWebServer()
+        server.start()
+    }
+
+    def cleanup() {
+        server.shutdown()
+    }
+
+    OkHttpClient client(RetryInterceptor interceptor) {
+        new OkHttpClient.Builder().
+            addInterceptor(interceptor).
+            readTimeout(500, TimeUnit.MILLISECONDS).
+            build()
+    }
+
+    def "retries GET after transient response"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(503))
+        server.enqueue(new MockResponse().setResponseCode(502))
+        server.enqueue(new MockResponse().setBody('{"a":"b"}').addHeader('content-type', 'application/json'))
+        def interceptor = new RetryInterceptor(3, 1, 10, 10000, null)
+
+        when:
+        def response = client(interceptor).newCall(new Request.Builder().url(server.url('/test')).build()).execute()
+
+        then:
+        response.code() == 200
+        response.body().string() == '{"a":"b"}'
+        response.header(RetryInterceptor.ATTEMPTS_HEADER) == '3'
+        server.requestCount == 3
+    }
+
+    def "returns last response after max retries"() {
+        given:
+        4.times { server.enqueue(new MockResponse().setResponseCode(504)) }
+
+        when:
+        def response = client(new RetryInterceptor(2, 1, 10, 10000, null)).
+            newCall(new Request.Builder().url(server.url('/test')).build()).
+            execute()
+
+        then:
+        response.code() == 504
+        response.header(RetryInterceptor.ATTEMPTS_HEADER) == '3'
+        server.requestCount == 3
+    }
+
+    def "retries read timeout"() {
+        given:
+        server.enqueue(
+            new MockResponse().
+                setBody('{"a":"b"}').
+                addHeader('content-type', 'application/json').
+                setSocketPolicy(SocketPolicy.NO_RESPONSE)
+        )
+        server.enqueue(new MockResponse().setBody('{"a":"c"}').addHeader('content-type', 'application/json'))
+
+        when:
+        def response = client(new RetryInterceptor(1, 1, 10, 10000, null)).
+            newCall(new Request.Builder().url(server.url('/test')).build()).
+            execute()
+
+        then:
+        response.body().string() == '{"a":"c"}'
+        server.requestCount == 2
+    }
+
+    def "POST is only retried if marked"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(503))
+        server.enqueue(new MockResponse().setResponseCode(200))
+        def builder = new Request.Builder().
+            url(server.url('/test')).
+            post(RequestBody.create('{}', MediaType.parse('application/json')))
+        if (marked) {
+            builder.header(RetryInterceptor.RETRY_HEADER, 'true')
+        }
+
+        when:
+        def response = client(new RetryInterceptor(3, 1, 10, 10000, null)).newCall(builder.build()).execute()
+
+        then:
+        response.code() == expected
+        server.requestCount == count
+        server.takeRequest().getHeader(RetryInterceptor.RETRY_HEADER) == null
+
+        where:
+        marked | expected | count
+        false  | 503      | 1
+        true   | 200      | 2
+    }
+
+    def "no retry when disabled"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(503))
+
+        when:
+        def response = client(new RetryInterceptor(0, 1, 10, 10000, null)).
+            newCall(new Request.Builder().url(server.url('/test')).build()).
+            execute()
+
+        then:
+        response.code() == 503
+        server.requestCount == 1
+    }
+
+    def "backoff delay is exponential with jitter and capped"() {
+        given:
+        def interceptor = new RetryInterceptor(10, 100, 1000, 10000, null)
+
+        expect:
+        (1..20).every {
+            def d = interceptor.delayMillis(attempt)
+            d >= min && d <= max
+        }
+
+        where:
+        attempt | min | max
+        1       | 50  | 100
+        2       | 100 | 200
+        3       | 200 | 400
+        5       | 500 | 1000
+        40      | 500 | 1000
+    }
+}
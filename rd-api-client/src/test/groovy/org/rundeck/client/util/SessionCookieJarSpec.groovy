@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import okhttp3.Cookie
+import okhttp3.HttpUrl
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.rundeck.client.RundeckClient
+import org.rundeck.client.api.RundeckApi
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.attribute.PosixFilePermissions
+
+class SessionCookieJarSpec extends Specification {
+    File dir
+    HttpUrl url = HttpUrl.parse('http://host/rundeck/api/41/projects')
+
+    def setup() {
+        dir = File.createTempDir()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    def "stored cookies are loaded by a new jar with the same password"() {
+        given:
+        def file = new File(dir, 'test.session')
+        def jar = new SessionCookieJar(file, 'apass')
+
+        when:
+        jar.saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123; path=/rundeck')])
+        def loaded = new SessionCookieJar(file, 'apass')
+
+        then:
+        file.isFile()
+        !file.text.contains('abc123')
+        loaded.hasCookies()
+        loaded.loadForRequest(url)*.value() == ['abc123']
+        loaded.loadForRequest(HttpUrl.parse('http://other/rundeck/api/41/projects')).isEmpty()
+    }
+
+    def "stored cookies are ignored with a different password"() {
+        given:
+        def file = new File(dir, 'test.session')
+        new SessionCookieJar(file, 'apass').saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123')])
+
+        when:
+        def loaded = new SessionCookieJar(file, 'otherpass')
+
+        then:
+        !loaded.hasCookies()
+        loaded.loadForRequest(url).isEmpty()
+    }
+
+    def "expired cookie replaces stored cookie"() {
+        given:
+        def file = new File(dir, 'test.session')
+        def jar = new SessionCookieJar(file, 'apass')
+        jar.saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123; path=/')])
+
+        when:
+        jar.saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=deleted; path=/; Max-Age=0')])
+
+        then:
+        !jar.hasCookies()
+        !new SessionCookieJar(file, 'apass').hasCookies()
+    }
+
+    @Requires({ java.nio.file.FileSystems.default.supportedFileAttributeViews().contains('posix') })
+    def "key file and session file are only readable by the owner"() {
+        given:
+        def file = new File(dir, 'test.session')
+
+        when:
+        new SessionCookieJar(file, 'apass').saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123')])
+        def keyFile = new File(dir, SessionCookieJar.KEY_FILE)
+
+        then:
+        keyFile.isFile()
+        keyFile.length() == 16
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(keyFile.toPath())) == 'rw-------'
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(file.toPath())) == 'rw-------'
+    }
+
+    def "key file is shared by sessions in the same directory"() {
+        given:
+        def file1 = new File(dir, 'a.session')
+        def file2 = new File(dir, 'b.session')
+
+        when:
+        new SessionCookieJar(file1, 'apass').saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123')])
+        def key = new File(dir, SessionCookieJar.KEY_FILE).bytes
+        new SessionCookieJar(file2, 'bpass').saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=def456')])
+
+        then:
+        new File(dir, SessionCookieJar.KEY_FILE).bytes == key
+        new SessionCookieJar(file1, 'apass').loadForRequest(url)*.value() == ['abc123']
+        new SessionCookieJar(file2, 'bpass').loadForRequest(url)*.value() == ['def456']
+    }
+
+    def "stored cookies are ignored if the key file is #desc"() {
+        given:
+        def file = new File(dir, 'test.session')
+        new SessionCookieJar(file, 'apass').saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=abc123')])
+        def keyFile = new File(dir, SessionCookieJar.KEY_FILE)
+        change(keyFile)
+
+        when:
+        def loaded = new SessionCookieJar(file, 'apass')
+
+        then:
+        !loaded.hasCookies()
+
+        when: "a new session is stored"
+        loaded.saveFromResponse(url, [Cookie.parse(url, 'JSESSIONID=def456')])
+
+        then:
+        keyFile.length() == 16
+        new SessionCookieJar(file, 'apass').loadForRequest(url)*.value() == ['def456']
+
+        where:
+        desc      | change
+        'missing' | { File f -> f.delete() }
+        'changed' | { File f -> f.bytes = new byte[16] }
+        'invalid' | { File f -> f.text = 'abc' }
+    }
+
+    def "stored session avoids the login requests of a new client"() {
+        given:
+        def server = new MockWebServer()
+        server.start()
+        def newClient = {
+            RundeckClient.builder().
+                baseUrl(server.url('/').toString()).
+                passwordAuth('auser', 'apass').
+                sessionStore(dir).
+                logger(Mock(Client.Logger)).
+                build()
+        }
+        server.enqueue(new MockResponse().setResponseCode(200))
+        server.enqueue(new MockResponse().setResponseCode(200).addHeader('Set-Cookie', 'JSESSIONID=abc123; Path=/'))
+        2.times {
+            server.enqueue(new MockResponse().setBody('[]').addHeader('content-type', 'application/json'))
+        }
+
+        when: "the first client logs in"
+        def client1 = newClient()
+        client1.apiCall { RundeckApi api -> api.listProjects() }
+        client1.close()
+
+        then:
+        server.requestCount == 3
+        server.takeRequest().method == 'GET'
+        server.takeRequest().path == '/j_security_check'
+        server.takeRequest().getHeader('Cookie') == 'JSESSIONID=abc123'
+
+        when: "a later client reuses the stored session"
+        def client2 = newClient()
+        client2.apiCall { RundeckApi api -> api.listProjects() }
+        client2.close()
+
+        then: "only the api request is made"
+        server.requestCount == 4
+        with(server.takeRequest()) {
+            path == "/api/${RundeckClient.API_VERS}/projects"
+            getHeader('Cookie') == 'JSESSIONID=abc123'
+        }
+
+        cleanup:
+        server.shutdown()
+    }
+}
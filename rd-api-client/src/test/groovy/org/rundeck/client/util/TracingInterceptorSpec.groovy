@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.util
+
+import groovy.json.JsonSlurper
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.rundeck.client.RundeckClient
+import org.rundeck.client.api.RundeckApi
+import spock.lang.Specification
+
+class TracingInterceptorSpec extends Specification {
+    MockWebServer server
+    List<String> lines
+    Tracer tracer
+    Client<RundeckApi> client
+
+    def setup() {
+        server = new MockWebServer()
+        server.start()
+        lines = []
+        tracer = new Tracer('rd', new OtlpJsonExporter({ lines << it }), null)
+        client = RundeckClient.builder().
+            baseUrl(server.url('/api/29/').toString()).
+            tokenAuth('abc').
+            tracer(tracer).
+            retry(1, 1L, 1L, 10L).
+            logger(Mock(Client.Logger)).
+            build()
+    }
+
+    def cleanup() {
+        client.close()
+        server.shutdown()
+    }
+
+    def "span per call with templated path, status, retries and traceparent"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(503))
+        server.enqueue(
+            new MockResponse().
+                setBody('{"name":"p1"}').
+                addHeader('content-type', 'application/json')
+        )
+        def root = tracer.startRoot('rd projects info', Tracer.KIND_INTERNAL)
+
+        when:
+        def result = client.apiCall { it.getProjectInfo('p1') }
+        root.end()
+        def spans = tracer.finished
+        def first = server.takeRequest()
+        def second = server.takeRequest()
+
+        then:
+        result.name == 'p1'
+        spans.size() == 2
+        def span = spans[0]
+        span.name == 'GET project/{project}'
+        span.kind == Tracer.KIND_CLIENT
+        span.parentSpanId == root.spanId
+        span.traceId == root.traceId
+        span.attributes['http.request.method'] == 'GET'
+        span.attributes['url.template'] == 'project/{project}'
+        span.attributes['http.response.status_code'] == 200
+        span.attributes['http.request.resend_count'] == 1
+        span.attributes['code.function'] == 'RundeckApi.getProjectInfo'
+        first.getHeader('traceparent') == span.traceparent()
+        second.getHeader('traceparent') == span.traceparent()
+        spans[1] == root
+    }
+
+    def "error status"() {
+        given:
+        server.enqueue(new MockResponse().setResponseCode(404))
+
+        when:
+        client.apiWithErrorResponse { it.getProjectInfo('p1') }
+        def spans = tracer.finished
+
+        then:
+        spans.size() == 1
+        spans[0].statusCode == Tracer.STATUS_ERROR
+        spans[0].attributes['http.response.status_code'] == 404
+        spans[0].parentSpanId == null
+    }
+
+    def "continues traceparent"() {
+        given:
+        def parent = '00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01'
+        def tracer = new Tracer('rd', new OtlpJsonExporter({ lines << it }), parent)
+
+        when:
+        def span = tracer.start('test', Tracer.KIND_INTERNAL)
+
+        then:
+        span.traceId == '0af7651916cd43dd8448eb211c80319c'
+        span.parentSpanId == 'b7ad6b7169203331'
+    }
+
+    def "export otlp json"() {
+        given:
+        def span = tracer.start('test', Tracer.KIND_INTERNAL).attribute('a', 'b').attribute('n', 2)
+        span.end()
+
+        when:
+        tracer.close()
+        def json = new JsonSlurper().parseText(lines[0])
+
+        then:
+        lines.size() == 1
+        json.resourceSpans[0].resource.attributes[0] == [key: 'service.name', value: [stringValue: 'rd']]
+        def exported = json.resourceSpans[0].scopeSpans[0].spans[0]
+        exported.traceId == span.traceId
+        exported.spanId == span.spanId
+        exported.name == 'test'
+        exported.kind == 1
+        exported.startTimeUnixNano == span.startEpochNanos.toString()
+        exported.attributes == [
+            [key: 'a', value: [stringValue: 'b']],
+            [key: 'n', value: [intValue: '2']]
+        ]
+        tracer.finished.isEmpty()
+    }
+
+    def "span ends when the response body is closed"() {
+        given:
+        server.enqueue(
+            new MockResponse().
+                setBody('{"entries":[]}').
+                addHeader('content-type', 'application/json')
+        )
+
+        when:
+        def body = client.apiCall { it.getOutputStream('1', 0L, 0L, 10L, false) }
+        def beforeClose = tracer.finished.size()
+        body.string()
+        def spans = tracer.finished
+
+        then:
+        beforeClose == 0
+        spans.size() == 1
+        spans[0].name == 'GET execution/{id}/output'
+    }
+
+    def "finished spans are exported in batches"() {
+        given:
+        def tracer = new Tracer('rd', new OtlpJsonExporter({ lines << it }), null, 2)
+
+        when:
+        3.times { tracer.start("span${it}", Tracer.KIND_INTERNAL).end() }
+
+        then:
+        lines.size() == 1
+        new JsonSlurper().parseText(lines[0]).resourceSpans[0].scopeSpans[0].spans*.name == ['span0', 'span1']
+        tracer.finished*.name == ['span2']
+
+        when:
+        tracer.close()
+
+        then:
+        lines.size() == 2
+        tracer.finished.isEmpty()
+    }
+
+    def "batch which fails to export is dropped"() {
+        given:
+        def tracer = new Tracer('rd', { name, spans -> throw new IOException('failed') } as Tracer.Exporter, null, 2)
+
+        when:
+        2.times { tracer.start("span${it}", Tracer.KIND_INTERNAL).end() }
+
+        then:
+        tracer.finished.isEmpty()
+        tracer.droppedCount == 2
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.openjdk.jmh.annotations.*;
+import org.rundeck.client.api.model.ExecutionList;
+import org.rundeck.client.api.model.JobItem;
+import org.rundeck.client.util.Json;
+import org.rundeck.client.util.QualifiedTypeConverterFactory;
+import org.rundeck.client.util.Xml;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import retrofit2.converter.jaxb.JaxbConverterFactory;
+import retrofit2.http.GET;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of execution and job lists through {@link QualifiedTypeConverterFactory}, with canned JSON and XML
+ * responses served by a local MockWebServer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConverterBenchmark {
+    @Param({"200"})
+    int size;
+
+    MockWebServer server;
+    DecodeApi api;
+
+    interface DecodeApi {
+        @Json
+        @GET("executions")
+        Call<ExecutionList> executions();
+
+        @Json
+        @GET("jobs")
+        Call<List<JobItem>> jobsJson();
+
+        @Xml
+        @GET("jobs.xml")
+        Call<JobList> jobsXml();
+    }
+
+    @XmlRootElement(name = "jobs")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class JobList {
+        @XmlElement(name = "job")
+        public List<JobItem> jobs;
+    }
+
+    @Setup
+    public void setup() throws IOException, JAXBException {
+        ObjectMapper mapper = new ObjectMapper();
+        List<JobItem> jobs = new ArrayList<>(size);
+        List<Map<String, Object>> executions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JobItem job = new JobItem();
+            job.setId("a6f3c4e0-0000-4000-8000-" + String.format("%012d", i));
+            job.setName("job " + i);
+            job.setGroup("group/sub" + (i % 10));
+            job.setProject("bench");
+            job.setHref("http://localhost/api/40/job/" + job.getId());
+            job.setPermalink("http://localhost/project/bench/job/show/" + job.getId());
+            jobs.add(job);
+
+            Map<String, Object> date = new HashMap<>();
+            date.put("date", "2022-05-01T12:00:00Z");
+            date.put("unixtime", 1651406400000L + i);
+            Map<String, Object> exec = new HashMap<>();
+            exec.put("id", i);
+            exec.put("href", "http://localhost/api/40/execution/" + i);
+            exec.put("permalink", "http://localhost/project/bench/execution/show/" + i);
+            exec.put("status", "succeeded");
+            exec.put("project", "bench");
+            exec.put("user", "admin");
+            exec.put("date-started", date);
+            exec.put("date-ended", date);
+            exec.put("job", mapper.convertValue(job, Map.class));
+            exec.put("description", "job " + i);
+            exec.put("argstring", "-opt value");
+            executions.add(exec);
+        }
+        Map<String, Object> paging = new HashMap<>();
+        paging.put("count", size);
+        paging.put("total", size);
+        paging.put("offset", 0);
+        paging.put("max", size);
+        Map<String, Object> executionList = new HashMap<>();
+        executionList.put("paging", paging);
+        executionList.put("executions", executions);
+
+        JobList jobList = new JobList();
+        jobList.jobs = jobs;
+        StringWriter xml = new StringWriter();
+        JAXBContext.newInstance(JobList.class).createMarshaller().marshal(jobList, xml);
+
+        Map<String, MockResponse> responses = new HashMap<>();
+        responses.put("/executions", json(mapper.writeValueAsString(executionList)));
+        responses.put("/jobs", json(mapper.writeValueAsString(jobs)));
+        responses.put(
+                "/jobs.xml",
+                new MockResponse().setHeader("Content-Type", "application/xml").setBody(xml.toString())
+        );
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) {
+                MockResponse response = responses.get(request.getPath());
+                return null != response ? response : new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addConverterFactory(new QualifiedTypeConverterFactory(
+                        JacksonConverterFactory.create(),
+                        JaxbConverterFactory.create(),
+                        true
+                ))
+                .build()
+                .create(DecodeApi.class);
+    }
+
+    private static MockResponse json(final String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Benchmark
+    public ExecutionList executionListJson() throws IOException {
+        return api.executions().execute().body();
+    }
+
+    @Benchmark
+    public List<JobItem> jobListJson() throws IOException {
+        return api.jobsJson().execute().body();
+    }
+
+    @Benchmark
+    public JobList jobListXml() throws IOException {
+        return api.jobsXml().execute().body();
+    }
+}
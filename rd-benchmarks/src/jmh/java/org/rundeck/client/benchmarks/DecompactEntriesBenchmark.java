@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.rundeck.client.api.model.ExecLog;
+import org.rundeck.client.api.model.ExecOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decompacting a page of compacted execution log entries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecompactEntriesBenchmark {
+    @Param({"500", "5000"})
+    int entries;
+
+    List<ExecLog> compacted;
+
+    @Setup
+    public void setup() {
+        compacted = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            ExecLog log = new ExecLog("output line " + i);
+            if (i % 50 == 0) {
+                log.time = "12:00:" + (i % 60);
+                log.level = "NORMAL";
+                log.user = "admin";
+                log.node = "node" + (i % 10);
+                log.stepctx = Integer.toString(1 + i / 1000);
+            }
+            compacted.add(log);
+        }
+    }
+
+    @Benchmark
+    public List<ExecLog> decompactEntries() {
+        ExecOutput output = new ExecOutput();
+        output.compacted = true;
+        output.entries = compacted;
+        return output.decompactEntries();
+    }
+}
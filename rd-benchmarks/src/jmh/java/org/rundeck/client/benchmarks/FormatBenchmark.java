@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.rundeck.client.util.Format;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Output format templates as used by the -% option, applied to a list of execution-like rows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormatBenchmark {
+    @Param({"1000"})
+    int rows;
+
+    @Param({"%id %status %job.group/%job.name %user %date-started.date"})
+    String template;
+
+    List<Map<String, Object>> data;
+
+    @Setup
+    public void setup() {
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> job = new HashMap<>();
+            job.put("id", "job-" + i);
+            job.put("name", "job name " + i);
+            job.put("group", "group/sub" + (i % 10));
+            Map<String, Object> date = new HashMap<>();
+            date.put("date", "2022-05-01T12:00:" + (i % 60) + "Z");
+            date.put("unixtime", 1651406400000L + i);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", Integer.toString(i));
+            row.put("status", i % 7 == 0 ? "failed" : "succeeded");
+            row.put("user", "user" + (i % 5));
+            row.put("job", job);
+            row.put("date-started", date);
+            data.add(row);
+        }
+    }
+
+    @Benchmark
+    public void format(Blackhole bh) {
+        for (Map<String, Object> row : data) {
+            bh.consume(Format.format(template, row, "%", ""));
+        }
+    }
+
+    @Benchmark
+    public void formatter(Blackhole bh) {
+        Function<Map<?, ?>, String> formatter = Format.formatter(template, "%", "");
+        for (Map<String, Object> row : data) {
+            bh.consume(formatter.apply(row));
+        }
+    }
+}
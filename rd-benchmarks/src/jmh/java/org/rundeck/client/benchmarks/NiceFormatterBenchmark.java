@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.rundeck.client.tool.format.NiceFormatter;
+import org.rundeck.client.tool.format.ToStringFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nice formatting of a list of node-like maps with nested attributes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NiceFormatterBenchmark {
+    @Param({"1000"})
+    int size;
+
+    List<Map<String, Object>> data;
+    NiceFormatter formatter;
+
+    @Setup
+    public void setup() {
+        formatter = new NiceFormatter(new ToStringFormatter());
+        data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> attrs = new LinkedHashMap<>();
+            attrs.put("hostname", "node" + i + ".example.com");
+            attrs.put("osFamily", "unix");
+            attrs.put("osName", "Linux");
+            attrs.put("tags", Arrays.asList("web", "tier" + (i % 3), "zone-" + (i % 4)));
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("nodename", "node" + i);
+            node.put("attributes", attrs);
+            data.add(node);
+        }
+    }
+
+    @Benchmark
+    public String format() {
+        return formatter.format(data);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.ext.acl;
+
+import com.dtolabs.rundeck.core.authorization.Attribute;
+import com.dtolabs.rundeck.core.authorization.AuthorizationUtil;
+import com.dtolabs.rundeck.core.authorization.Decision;
+import com.dtolabs.rundeck.core.authorization.RuleEvaluator;
+import com.dtolabs.rundeck.core.authorization.providers.Policies;
+import org.openjdk.jmh.annotations.*;
+import org.rundeck.core.auth.AuthConstants;
+
+import javax.security.auth.Subject;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a job resource against a set of project ACL policies, as done by {@code rd acl test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AclBenchmark {
+    @Param({"20"})
+    int policies;
+
+    File file;
+    RuleEvaluator evaluator;
+    Subject subject;
+    Set<Map<String, String>> resources;
+    Set<String> actions;
+    Set<Attribute> environment;
+
+    @Setup
+    public void setup() throws IOException {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < policies; i++) {
+            yaml.append("description: group ").append(i).append('\n')
+                .append("context:\n")
+                .append("  project: 'bench.*'\n")
+                .append("for:\n")
+                .append("  job:\n")
+                .append("    - equals:\n")
+                .append("        group: 'group/sub").append(i).append("'\n")
+                .append("      allow: [run, read]\n")
+                .append("    - match:\n")
+                .append("        name: 'job .*'\n")
+                .append("      allow: [read]\n")
+                .append("by:\n")
+                .append("  group: [dev").append(i).append("]\n")
+                .append("---\n");
+        }
+        file = File.createTempFile("bench", ".aclpolicy");
+        Files.write(file.toPath(), yaml.toString().getBytes(StandardCharsets.UTF_8));
+        evaluator = RuleEvaluator.createRuleEvaluator(Policies.loadFile(file), Acl::createSubject);
+
+        subject = new Subject();
+        subject.getPrincipals().add(new Acl.Username("bench"));
+        subject.getPrincipals().add(new Acl.Group("dev" + (policies - 1)));
+
+        Map<String, String> job = new HashMap<>();
+        job.put("name", "job 1");
+        job.put("group", "group/sub" + (policies - 1));
+        resources = Collections.singleton(AuthorizationUtil.resource(AuthConstants.TYPE_JOB, job));
+        actions = new HashSet<>(Arrays.asList("run", "read", "delete"));
+        environment = Collections.singleton(
+                new Attribute(URI.create(AuthorizationUtil.URI_BASE + "project"), "bench")
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public Set<Decision> evaluate() {
+        return evaluator.evaluate(resources, subject, actions, environment);
+    }
+}
@@ -1,5 +1,7 @@
 package org.rundeck.client.tool;
 
+import java.util.stream.Stream;
+
 public interface CommandOutput {
     /**
      * Info level output, may be hidden for data/formatted output
@@ -9,6 +11,19 @@ public interface CommandOutput {
     void info(Object output);
     void output(Object output);
 
+    /**
+     * Output a sequence of items incrementally, without collecting them first. Formatted output writes each item as
+     * it is consumed, and the default writes each item as a separate {@link #output(Object)}. The stream is closed
+     * when done.
+     *
+     * @param items items
+     */
+    default void outputStream(Stream<?> items) {
+        try (Stream<?> stream = items) {
+            stream.forEachOrdered(this::output);
+        }
+    }
+
     void error(Object error);
 
     void warning(Object error);
@@ -30,12 +30,7 @@ public abstract class BaseDataOutputFormatter implements OutputFormatter {
 
     @Override
     public String format(final Object o) {
-        final Formatable value;
-        if (o instanceof Formatable) {
-            value = (Formatable) o;
-        } else {
-            value = null != dataFormatter ? dataFormatter.apply(o).orElse(null) : null;
-        }
+        final Formatable value = asFormatable(o);
         if (value != null) {
             List<?> objects = value.asList();
             if (null != objects) {
@@ -51,6 +46,33 @@ public abstract class BaseDataOutputFormatter implements OutputFormatter {
         return null != base ? base.format(o) : o.toString();
     }
 
+    private Formatable asFormatable(final Object o) {
+        if (o instanceof Formatable) {
+            return (Formatable) o;
+        }
+        return null != dataFormatter ? dataFormatter.apply(o).orElse(null) : null;
+    }
+
+    /**
+     * @param o object
+     *
+     * @return the list or map data of a formatable object, or the object itself
+     */
+    protected Object asData(final Object o) {
+        Formatable value = asFormatable(o);
+        if (value != null) {
+            List<?> objects = value.asList();
+            if (null != objects) {
+                return objects;
+            }
+            Map<?, ?> map = value.asMap();
+            if (null != map) {
+                return map;
+            }
+        }
+        return o;
+    }
+
     protected String formatMap(Map value) {
         return formatObject(value);
     }
@@ -0,0 +1,124 @@
+package org.rundeck.client.tool.format;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Format objects as CSV, one line per item of a list. If the first item is a Map (or a {@link Formatable} map), its
+ * keys are written as the header, and the values of each item are written in that column order. Nested maps and
+ * lists are written as JSON.
+ */
+public class CsvFormatter extends BaseDataOutputFormatter {
+    private final ObjectMapper mapper;
+
+    public CsvFormatter(final Function<Object, Optional<Formatable>> dataFormatter) {
+        super(dataFormatter);
+        this.mapper = new ObjectMapper();
+    }
+
+    public CsvFormatter(
+            final OutputFormatter base,
+            final Function<Object, Optional<Formatable>> dataFormatter,
+            final ObjectMapper mapper
+    ) {
+        super(base, dataFormatter);
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Stream<String> formatStream(final Stream<?> items) {
+        Table table = new Table();
+        return items.flatMap(o -> table.records(asData(o)).stream());
+    }
+
+    @Override
+    protected boolean canFormatObject(final Object value) {
+        return true;
+    }
+
+    @Override
+    protected String formatObject(final Object value) {
+        Table table = new Table();
+        List<String> records = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object o : (Collection<?>) value) {
+                records.addAll(table.records(asData(o)));
+            }
+        } else {
+            records.addAll(table.records(value));
+        }
+        return String.join(NiceFormatter.NL, records);
+    }
+
+    @Override
+    protected OutputFormatter withBase(
+            final Function<Object, Optional<Formatable>> dataFormatter, final OutputFormatter base
+    ) {
+        return new CsvFormatter(base, dataFormatter, mapper);
+    }
+
+    /**
+     * Holds the columns from the first record
+     */
+    private class Table {
+        boolean started;
+        List<Object> columns;
+
+        List<String> records(final Object data) {
+            List<String> records = new ArrayList<>(2);
+            if (!started) {
+                started = true;
+                if (data instanceof Map) {
+                    columns = new ArrayList<>(((Map<?, ?>) data).keySet());
+                    records.add(row(columns));
+                }
+            }
+            if (data instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) data;
+                records.add(row(null != columns ? columns.stream().map(map::get) : map.values().stream()));
+            } else if (data instanceof Collection) {
+                records.add(row(((Collection<?>) data).stream()));
+            } else {
+                records.add(field(data));
+            }
+            return records;
+        }
+
+        private String row(final Collection<?> values) {
+            return row(values.stream());
+        }
+
+        private String row(final Stream<?> values) {
+            return values.map(this::field).collect(Collectors.joining(","));
+        }
+
+        private String field(final Object value) {
+            if (null == value) {
+                return "";
+            }
+            String text;
+            if (value instanceof Map || value instanceof Collection) {
+                try {
+                    text = mapper.writeValueAsString(value);
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException(e);
+                }
+            } else {
+                text = value.toString();
+            }
+            return escape(text);
+        }
+    }
+
+    static String escape(final String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -3,6 +3,8 @@ package org.rundeck.client.tool.format;
 
 import org.rundeck.client.tool.CommandOutput;
 
+import java.util.stream.Stream;
+
 /**
  * Can format output objects
  */
@@ -30,6 +32,11 @@ public class FormattedOutput implements CommandOutput {
 
     }
 
+    @Override
+    public void outputStream(final Stream<?> items) {
+        delegate.outputStream(formatter.formatStream(items));
+    }
+
     @Override
     public void error(final Object error)  {
         delegate.error(formatter.format(error));
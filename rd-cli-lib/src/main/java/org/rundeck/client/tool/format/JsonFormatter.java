@@ -3,8 +3,14 @@ package org.rundeck.client.tool.format;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class JsonFormatter extends BaseDataOutputFormatter {
     final ObjectMapper mapper;
@@ -55,6 +61,43 @@ public class JsonFormatter extends BaseDataOutputFormatter {
         }
     }
 
+    /**
+     * Formats the items as a JSON array with one element per line
+     */
+    @Override
+    public Stream<String> formatStream(final Stream<?> items) {
+        Iterator<?> iterator = items.iterator();
+        Iterator<String> lines = new Iterator<String>() {
+            boolean started;
+            boolean finished;
+
+            @Override
+            public boolean hasNext() {
+                return !finished;
+            }
+
+            @Override
+            public String next() {
+                if (finished) {
+                    throw new NoSuchElementException();
+                }
+                if (!started) {
+                    started = true;
+                    finished = !iterator.hasNext();
+                    return finished ? "[]" : "[";
+                }
+                if (!iterator.hasNext()) {
+                    finished = true;
+                    return "]";
+                }
+                String element = format(iterator.next());
+                return iterator.hasNext() ? element + "," : element;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines, Spliterator.ORDERED), false)
+                            .onClose(items::close);
+    }
+
     @Override
     protected boolean canFormatObject(final Object value) {
         return true;
@@ -0,0 +1,53 @@
+package org.rundeck.client.tool.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Format objects as newline delimited JSON: each item of a list is written as a single line JSON record
+ */
+public class NdjsonFormatter extends JsonFormatter {
+
+    public NdjsonFormatter(final Function<Object, Optional<Formatable>> dataFormatter) {
+        super(dataFormatter);
+    }
+
+    public NdjsonFormatter(
+            final OutputFormatter base,
+            final Function<Object, Optional<Formatable>> dataFormatter,
+            final ObjectMapper mapper
+    ) {
+        super(base, dataFormatter, mapper);
+    }
+
+    @Override
+    public Stream<String> formatStream(final Stream<?> items) {
+        return items.map(this::formatRecord);
+    }
+
+    @Override
+    protected String formatObject(final Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).stream()
+                                          .map(this::formatRecord)
+                                          .collect(Collectors.joining(NiceFormatter.NL));
+        }
+        return super.formatObject(value);
+    }
+
+    private String formatRecord(final Object o) {
+        return super.formatObject(asData(o));
+    }
+
+    @Override
+    protected OutputFormatter withBase(
+            final Function<Object, Optional<Formatable>> dataFormatter, final OutputFormatter base
+    ) {
+        return new NdjsonFormatter(base, dataFormatter, mapper);
+    }
+}
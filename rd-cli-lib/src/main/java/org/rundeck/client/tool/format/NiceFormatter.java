@@ -3,6 +3,7 @@ package org.rundeck.client.tool.format;
 import java.util.Collection;
 import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class NiceFormatter implements OutputFormatter {
     OutputFormatter base;
@@ -83,18 +84,34 @@ public class NiceFormatter implements OutputFormatter {
     private String formatCollection(final Collection o, final int level) {
         StringBuilder sb = new StringBuilder();
         for (Object o1 : o) {
-            indent(level, collectionIndicator, sb, true);
-            String format = format(o1);
-            if (format.contains(NL)) {
-                indent(level + 1, format, sb, false);
-            } else {
-                sb.append(format);
-            }
+            formatCollectionItem(o1, level, sb);
             sb.append(NL);
         }
         return sb.toString();
     }
 
+    private void formatCollectionItem(final Object o, final int level, final StringBuilder sb) {
+        indent(level, collectionIndicator, sb, true);
+        String format = format(o);
+        if (format.contains(NL)) {
+            indent(level + 1, format, sb, false);
+        } else {
+            sb.append(format);
+        }
+    }
+
+    /**
+     * Formats each item as a collection entry
+     */
+    @Override
+    public Stream<String> formatStream(final Stream<?> items) {
+        return items.map(o -> {
+            StringBuilder sb = new StringBuilder();
+            formatCollectionItem(o, 0, sb);
+            return sb.toString();
+        });
+    }
+
     public String getCollectionIndicator() {
         return collectionIndicator;
     }
@@ -1,7 +1,25 @@
 package org.rundeck.client.tool.format;
 
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public interface OutputFormatter {
     String format(Object o);
 
+    /**
+     * Format a sequence of items as a sequence of output records, each of which is written as a line. Formatters
+     * which can produce output incrementally should consume the items lazily, the default formats all items as a
+     * single list.
+     *
+     * @param items items
+     *
+     * @return formatted records
+     */
+    default Stream<String> formatStream(Stream<?> items) {
+        try (Stream<?> stream = items) {
+            return Stream.of(format(stream.collect(Collectors.toList())));
+        }
+    }
+
     OutputFormatter withBase(OutputFormatter base);
 }
@@ -6,6 +6,7 @@ import org.yaml.snakeyaml.representer.Representer;
 
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Format objects as YAML, this will convert any Map/Collection into Yaml, and any Object that implements {@link
@@ -75,6 +76,20 @@ public class YamlFormatter extends BaseDataOutputFormatter {
         this.yaml = new Yaml(options);
     }
 
+    /**
+     * Formats each item as a separate YAML document
+     */
+    @Override
+    public Stream<String> formatStream(final Stream<?> items) {
+        return items.map(o -> {
+            String document = format(o);
+            if (document.endsWith("\n")) {
+                document = document.substring(0, document.length() - 1);
+            }
+            return "---\n" + document;
+        });
+    }
+
     @Override
     protected boolean canFormatObject(final Object value) {
         return true;
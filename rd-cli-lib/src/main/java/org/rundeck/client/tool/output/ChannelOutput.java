@@ -4,6 +4,7 @@ package org.rundeck.client.tool.output;
 import org.rundeck.client.tool.CommandOutput;
 
 import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 /**
  * Channels output to another output based on the method
@@ -140,6 +141,16 @@ public class ChannelOutput implements CommandOutput {
         }
     }
 
+    @Override
+    public void outputStream(final Stream<?> items) {
+        CommandOutput target = null != output ? output : fallback;
+        if (outputEnabled && null != target) {
+            target.outputStream(items);
+        } else {
+            items.close();
+        }
+    }
+
     @Override
     public void error(final Object msg) {
         if (errorEnabled) {
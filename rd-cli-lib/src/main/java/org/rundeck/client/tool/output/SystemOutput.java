@@ -2,7 +2,14 @@ package org.rundeck.client.tool.output;
 
 import org.rundeck.client.tool.CommandOutput;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.stream.Stream;
+
 public class SystemOutput implements CommandOutput {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     @Override
     public void info(final Object output) {
         System.out.println(output);
@@ -13,6 +20,19 @@ public class SystemOutput implements CommandOutput {
         System.out.println(output);
     }
 
+    /**
+     * Writes each item on a line through a buffer, flushed when the stream is done
+     */
+    @Override
+    public void outputStream(final Stream<?> items) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE), false);
+        try (Stream<?> stream = items) {
+            stream.forEachOrdered(out::println);
+        } finally {
+            out.flush();
+        }
+    }
+
     @Override
     public void error(final Object error) {
         System.err.println(error);
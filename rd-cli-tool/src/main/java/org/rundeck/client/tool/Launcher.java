@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool;
+
+import org.rundeck.client.tool.daemon.DaemonClient;
+
+/**
+ * Entry point for the rd executable. Forwards the invocation to a running daemon if enabled, before {@link Main} and
+ * the command classes are loaded, otherwise runs the command in this process.
+ */
+public class Launcher {
+    private Launcher() {
+    }
+
+    public static void main(String[] args) {
+        Integer forwarded = DaemonClient.forward(args);
+        if (null != forwarded) {
+            System.exit(forwarded);
+        }
+        Main.main(args);
+    }
+}
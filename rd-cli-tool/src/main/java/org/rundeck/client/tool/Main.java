@@ -16,6 +16,8 @@
 
 package org.rundeck.client.tool;
 
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import org.jetbrains.annotations.NotNull;
 import org.rundeck.client.RundeckClient;
 import org.rundeck.client.api.RequestFailed;
@@ -29,6 +31,7 @@ import org.rundeck.client.tool.extension.RdCommandExtension;
 import org.rundeck.client.tool.extension.RdTool;
 import org.rundeck.client.tool.format.*;
 import org.rundeck.client.tool.output.SystemOutput;
+import org.rundeck.client.tool.util.ApiVersionCache;
 import org.rundeck.client.tool.util.ExtensionLoaderUtil;
 import org.rundeck.client.tool.util.Resources;
 import org.rundeck.client.util.*;
@@ -58,24 +61,7 @@ import static org.rundeck.client.RundeckClient.*;
 @CommandLine.Command(
         name = "rd",
         version = org.rundeck.client.Version.VERSION,
-        mixinStandardHelpOptions = true,
-        subcommands = {
-                Adhoc.class,
-                Jobs.class,
-                Projects.class,
-                Executions.class,
-                Run.class,
-                Keys.class,
-                RDSystem.class,
-                Scheduler.class,
-                Tokens.class,
-                Nodes.class,
-                Users.class,
-                Main.Something.class,
-                Retry.class,
-                Metrics.class,
-                Version.class
-        }
+        mixinStandardHelpOptions = true
 )
 public class Main {
     public static final String RD_USER = "RD_USER";
@@ -88,6 +74,41 @@ public class Main {
     public static final String RD_FORMAT = "RD_FORMAT";
     public static final String RD_EXT_DISABLED = "RD_EXT_DISABLED";
     public static final String RD_EXT_DIR = "RD_EXT_DIR";
+    /**
+     * Export trace spans in OTLP/JSON format: "stdout", "stderr", or a file path to append to
+     */
+    public static final String RD_TRACE = "RD_TRACE";
+    /**
+     * W3C trace context of a parent span, e.g. from a pipeline
+     */
+    public static final String TRACEPARENT = "TRACEPARENT";
+
+    /**
+     * Built in subcommand class names and command names, each class is loaded only when registered by {@link
+     * #registerCommands(CommandLine, Rd, String)}
+     */
+    static final List<ExtensionLoaderUtil.Entry> COMMANDS = Collections.unmodifiableList(Arrays.asList(
+            command("org.rundeck.client.tool.commands.Adhoc", "adhoc"),
+            command("org.rundeck.client.tool.commands.Jobs", "jobs"),
+            command("org.rundeck.client.tool.commands.Projects", "projects"),
+            command("org.rundeck.client.tool.commands.Executions", "executions"),
+            command("org.rundeck.client.tool.commands.Run", "run"),
+            command("org.rundeck.client.tool.commands.Keys", "keys"),
+            command("org.rundeck.client.tool.commands.RDSystem", "system"),
+            command("org.rundeck.client.tool.commands.Scheduler", "scheduler"),
+            command("org.rundeck.client.tool.commands.Tokens", "tokens"),
+            command("org.rundeck.client.tool.commands.Nodes", "nodes"),
+            command("org.rundeck.client.tool.commands.Users", "users"),
+            command("org.rundeck.client.tool.Main$Something", "pond"),
+            command("org.rundeck.client.tool.commands.Retry", "retry"),
+            command("org.rundeck.client.tool.commands.Metrics", "metrics"),
+            command("org.rundeck.client.tool.commands.Version", "version"),
+            command("org.rundeck.client.tool.commands.Daemon", "daemon")
+    ));
+
+    private static ExtensionLoaderUtil.Entry command(String className, String... names) {
+        return new ExtensionLoaderUtil.Entry(className, Arrays.asList(names));
+    }
 
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
@@ -95,9 +116,28 @@ public class Main {
             USER_AGENT =
             RundeckClient.Builder.getUserAgent("rd-cli-tool/" + org.rundeck.client.Version.VERSION);
 
+    /**
+     * Run in this process, see {@link Launcher} for forwarding to a daemon
+     *
+     * @param args arguments
+     */
     public static void main(String[] args) {
+        System.exit(run(args, new Env(), null));
+    }
+
+    /**
+     * Run a command
+     *
+     * @param args           arguments
+     * @param env            environment config values
+     * @param connectionPool connection pool shared between invocations, or null
+     *
+     * @return exit code
+     */
+    public static int run(String[] args, ConfigValues env, ConnectionPool connectionPool) {
         int result = -1;
-        try (Rd rd = createRd()) {
+        try (Rd rd = createRd(env)) {
+            rd.connectionPool = connectionPool;
             RdToolImpl rd1 = new RdToolImpl(rd);
             CommandLine commandLine = new CommandLine(new Main(), new CmdFactory(rd1));
             CommandLine.Help.ColorScheme colorScheme = new CommandLine.Help.ColorScheme.Builder(CommandLine.Help.defaultColorScheme(CommandLine.Help.Ansi.AUTO))
@@ -150,21 +190,65 @@ public class Main {
                 throw ex;
             });
 
-            loadCommands(rd, rd1).forEach(commandLine::addSubcommand);
+            CommandLine.IExecutionStrategy execution = new CommandLine.RunLast();
+            commandLine.setExecutionStrategy(parseResult -> executeTraced(rd, parseResult, execution));
+
+            registerCommands(commandLine, rd, selectedCommand(args));
 
             result = commandLine.execute(args);
         } catch (IOException e) {
             e.printStackTrace();
         }
-        System.exit(result);
+        return result;
+    }
+
+    /**
+     * Execute the command, in a span if tracing is enabled
+     *
+     * @param rd          app
+     * @param parseResult parse result
+     * @param execution   execution strategy
+     *
+     * @return exit code
+     */
+    static int executeTraced(
+            final Rd rd,
+            final CommandLine.ParseResult parseResult,
+            final CommandLine.IExecutionStrategy execution
+    )
+    {
+        Tracer tracer = rd.getTracer();
+        if (null == tracer) {
+            return execution.execute(parseResult);
+        }
+        String command = parseResult.asCommandLineList()
+                                    .stream()
+                                    .map(CommandLine::getCommandName)
+                                    .collect(Collectors.joining(" "));
+        Tracer.Span span = tracer.startRoot(command, Tracer.KIND_INTERNAL)
+                                 .attribute("rd.command", command)
+                                 .attribute("rd.version", org.rundeck.client.Version.VERSION);
+        try {
+            int exit = execution.execute(parseResult);
+            span.attribute("process.exit.code", exit);
+            if (exit != 0) {
+                span.status(Tracer.STATUS_ERROR, "Exit code: " + exit);
+            }
+            return exit;
+        } catch (RuntimeException e) {
+            span.error(null != e.getCause() ? e.getCause() : e);
+            throw e;
+        } finally {
+            span.end();
+        }
     }
 
     @NotNull
-    private static Rd createRd() {
-        ConfigSource config = buildConfig();
-        loadExtensionJars(config);
+    private static Rd createRd(ConfigValues env) {
+        ConfigSource config = buildConfig(env);
         RdBuilder builder = new RdBuilder();
         Rd rd = new Rd(config);
+        rd.extensionDir = loadExtensionJars(rd, config);
         setup(rd, builder);
         return rd;
     }
@@ -191,29 +275,39 @@ public class Main {
         return null;
     }
 
-    private static ConfigSource buildConfig() {
-        return new ConfigBase(new MultiConfigValues(new Env(), new SysProps()));
+    private static ConfigSource buildConfig(ConfigValues env) {
+        return new ConfigBase(new MultiConfigValues(env, new SysProps()));
     }
 
-    private static void loadExtensionJars(ConfigSource config) {
+    /**
+     * Add extension jars to the context class loader, the loader is closed when the app is closed
+     *
+     * @param rd     app
+     * @param config config
+     *
+     * @return extension dir, or null if not used
+     */
+    private static File loadExtensionJars(Rd rd, ConfigSource config) {
         if (config.getBool(RD_EXT_DISABLED, false)) {
-            return;
+            return null;
         }
         String rd_ext_dir = config.get(RD_EXT_DIR);
         if(null==rd_ext_dir){
-            return;
+            return null;
         }
         File extDir = new File(rd_ext_dir);
         if (!extDir.isDirectory()) {
-            return;
+            return null;
         }
         File[] jars = extDir.listFiles(f -> f.getName().endsWith(".jar"));
         //add to class loader
         if(jars==null){
-            return;
+            return null;
         }
-        URLClassLoader urlClassLoader = buildClassLoader(jars);
-        Thread.currentThread().setContextClassLoader(urlClassLoader);
+        rd.previousClassLoader = Thread.currentThread().getContextClassLoader();
+        rd.extensionClassLoader = buildClassLoader(jars);
+        Thread.currentThread().setContextClassLoader(rd.extensionClassLoader);
+        return extDir;
     }
 
     private static URLClassLoader buildClassLoader(final File[] jars) {
@@ -236,6 +330,10 @@ public class Main {
             configYamlFormat(belt, config);
         } else if ("json".equalsIgnoreCase(format)) {
             configJsonFormat(belt);
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            configDataFormat(belt, new NdjsonFormatter(DataOutputAsFormatable));
+        } else if ("csv".equalsIgnoreCase(format)) {
+            configDataFormat(belt, new CsvFormatter(DataOutputAsFormatable));
         } else {
             if (null != format) {
                 belt.finalOutput().warning(String.format("# WARNING: Unknown value for %s: %s", RD_FORMAT, format));
@@ -271,7 +369,11 @@ public class Main {
     }
 
     private static void configJsonFormat(final RdBuilder belt) {
-        belt.formatter(new JsonFormatter(DataOutputAsFormatable));
+        configDataFormat(belt, new JsonFormatter(DataOutputAsFormatable));
+    }
+
+    private static void configDataFormat(final RdBuilder belt, final OutputFormatter formatter) {
+        belt.formatter(formatter);
         belt.channels().infoEnabled(false);
         belt.channels().warningEnabled(false);
         belt.channels().errorEnabled(false);
@@ -332,14 +434,57 @@ public class Main {
         }
     }
 
-    static List<RdCommandExtension> loadCommands(final Rd rd, RdToolImpl commandTool) {
-        List<RdCommandExtension> extensions = ExtensionLoaderUtil.list();
-        extensions.forEach(commandTool::initExtension);
+    /**
+     * @param args arguments
+     *
+     * @return name of the subcommand selected by the arguments, or null
+     */
+    static String selectedCommand(String[] args) {
+        if (args.length > 0 && !args[0].startsWith("-")) {
+            return args[0];
+        }
+        return null;
+    }
 
-        if (rd.getDebugLevel() > 0) {
-            extensions.forEach(ext -> rd.getOutput().warning("# Including extension: " + ext.getClass().getName()));
+    /**
+     * Register the built in and extension subcommands. If a known subcommand is selected, only that command is
+     * registered, so the other command classes and extensions are not loaded or instantiated. Otherwise all are
+     * registered, e.g. for the usage help.
+     *
+     * @param commandLine commandline
+     * @param rd          app
+     * @param selected    selected subcommand name, or null
+     */
+    static void registerCommands(CommandLine commandLine, Rd rd, String selected) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<ExtensionLoaderUtil.Entry> extensions = ExtensionLoaderUtil.index(loader, rd.extensionDir);
+        boolean known = null != selected && (
+                COMMANDS.stream().anyMatch(cmd -> cmd.getNames().contains(selected))
+                || extensions.stream().anyMatch(ext -> ext.getNames().contains(selected))
+        );
+        for (ExtensionLoaderUtil.Entry cmd : COMMANDS) {
+            if (!known || cmd.getNames().contains(selected)) {
+                try {
+                    commandLine.addSubcommand(cmd.load(Main.class.getClassLoader()));
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException("Built in command not found: " + cmd.getClassName(), e);
+                }
+            }
+        }
+        for (ExtensionLoaderUtil.Entry ext : extensions) {
+            if (known && !ext.getNames().isEmpty() && !ext.getNames().contains(selected)) {
+                continue;
+            }
+            try {
+                commandLine.addSubcommand(ext.load(loader));
+            } catch (ClassNotFoundException e) {
+                rd.getOutput().warning("# Extension not found: " + ext.getClassName());
+                continue;
+            }
+            if (rd.getDebugLevel() > 0) {
+                rd.getOutput().warning("# Including extension: " + ext.getClassName());
+            }
         }
-        return extensions;
     }
 
     public static void setup(final Rd rd, RdBuilder builder) {
@@ -359,6 +504,15 @@ public class Main {
     static class Rd extends ConfigBase implements RdApp, RdClientConfig, Closeable {
         private final Resources resources = new Resources();
         Client<RundeckApi> client;
+        ConnectionPool connectionPool;
+        private boolean ownConnectionPool;
+        private Dispatcher dispatcher;
+        private HttpMetrics metrics;
+        private Tracer tracer;
+        private boolean tracerCreated;
+        File extensionDir;
+        URLClassLoader extensionClassLoader;
+        ClassLoader previousClassLoader;
         private CommandOutput output = new SystemOutput();
 
         public Rd(final ConfigValues src) {
@@ -454,9 +608,88 @@ public class Main {
             this.output = output;
         }
 
+        /**
+         * @return connection pool shared by all clients, created from config if not provided
+         */
+        synchronized ConnectionPool getConnectionPool() {
+            if (null == connectionPool) {
+                connectionPool = RundeckClient.connectionPool(this);
+                ownConnectionPool = true;
+            }
+            return connectionPool;
+        }
+
+        /**
+         * @return dispatcher shared by all clients
+         */
+        synchronized Dispatcher getDispatcher() {
+            if (null == dispatcher) {
+                dispatcher = RundeckClient.dispatcher(this);
+            }
+            return dispatcher;
+        }
+
+        /**
+         * @return HTTP metrics shared by all clients, or null if not enabled
+         */
+        synchronized HttpMetrics getMetrics() {
+            if (null == metrics && null != RundeckClient.metricsReport(this)) {
+                metrics = new HttpMetrics(true);
+            }
+            return metrics;
+        }
+
+        /**
+         * @return tracer for the command and all clients, or null if not enabled
+         */
+        synchronized Tracer getTracer() {
+            if (!tracerCreated) {
+                tracerCreated = true;
+                String export = getString(RD_TRACE, null);
+                if (null != export && !export.trim().isEmpty()) {
+                    //write lines unformatted, the daemon routes System.out and System.err to the invocation
+                    OtlpJsonExporter exporter;
+                    if ("stdout".equals(export)) {
+                        exporter = new OtlpJsonExporter(line -> System.out.println(line));
+                    } else if ("stderr".equals(export)) {
+                        exporter = new OtlpJsonExporter(line -> System.err.println(line));
+                    } else {
+                        exporter = OtlpJsonExporter.toFile(new File(export));
+                    }
+                    tracer = new Tracer("rd", exporter, getString(TRACEPARENT, null));
+                }
+            }
+            return tracer;
+        }
+
         @Override
         public void close() throws IOException {
             resources.close();
+            String report = RundeckClient.metricsReport(this);
+            if (null != metrics && null != report) {
+                //write the report unformatted, the daemon routes System.err to the invocation
+                if ("json".equals(report)) {
+                    System.err.println(metrics.jsonReport());
+                } else {
+                    System.err.print(metrics.tableReport());
+                }
+            }
+            synchronized (this) {
+                if (null != tracer) {
+                    tracer.close();
+                }
+                if (null != dispatcher) {
+                    dispatcher.executorService().shutdown();
+                }
+                if (ownConnectionPool) {
+                    connectionPool.evictAll();
+                }
+            }
+            if (null != extensionClassLoader) {
+                //release the extension jars, e.g. for each invocation in the daemon
+                Thread.currentThread().setContextClassLoader(previousClassLoader);
+                extensionClassLoader.close();
+            }
         }
     }
 
@@ -492,13 +725,22 @@ public class Main {
         }
         RundeckClient.Builder<T> builder = RundeckClient.builder(api)
                                                         .baseUrl(baseUrl)
-                                                        .config(config);
+                                                        .config(config)
+                                                        .connectionPool(config.getConnectionPool())
+                                                        .dispatcher(config.getDispatcher())
+                                                        .metrics(config.getMetrics())
+                                                        .tracer(config.getTracer());
         if (null != requestedVersion) {
             builder.apiVersion(requestedVersion);
         } else {
             int anInt = config.getInt(RD_API_VERSION, -1);
             if (anInt > 0) {
                 builder.apiVersion(anInt);
+            } else {
+                Integer cached = cachedApiVersion(config, baseUrl);
+                if (null != cached) {
+                    builder.apiVersion(cached);
+                }
             }
         }
 
@@ -521,6 +763,25 @@ public class Main {
 
     }
 
+    /**
+     * @param config  config
+     * @param baseUrl base URL
+     *
+     * @return API version supported by the server from a previous run, if the URL does not specify a version and it is
+     *         lower than the default version, or null
+     */
+    static Integer cachedApiVersion(final RdClientConfig config, final String baseUrl) {
+        if (baseUrl.matches("^.*/api/\\d+/?$")) {
+            return null;
+        }
+        ApiVersionCache cache = ApiVersionCache.forConfig(config);
+        if (null == cache) {
+            return null;
+        }
+        Integer version = cache.get(baseUrl);
+        return null != version && version < API_VERS ? version : null;
+    }
+
     interface Auth {
         default boolean isConfigured() {
             return null != getToken() || (
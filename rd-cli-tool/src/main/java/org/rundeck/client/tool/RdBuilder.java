@@ -9,6 +9,7 @@ import picocli.CommandLine;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class RdBuilder {
     private final Map<Class<? extends Throwable>, ErrorHandler> errorHandlers = new HashMap<>();
@@ -224,6 +225,15 @@ public class RdBuilder {
             }
         }
 
+        @Override
+        public void outputStream(final Stream<?> items) {
+            if (null != config.get("output")) {
+                CommandOutput.super.outputStream(items);
+            } else {
+                sink.outputStream(items.map(ANSIColorOutput::toColors));
+            }
+        }
+
         @Override
         public void error(final Object error) {
             if (null != config.get("error")) {
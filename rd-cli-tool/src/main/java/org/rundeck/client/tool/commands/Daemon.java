@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.commands;
+
+import org.rundeck.client.tool.InputError;
+import org.rundeck.client.tool.daemon.DaemonClient;
+import org.rundeck.client.tool.daemon.DaemonServer;
+import org.rundeck.client.tool.daemon.DaemonState;
+import org.rundeck.client.tool.extension.BaseCommand;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manage a resident rd process
+ */
+@CommandLine.Command(description = "Run a resident rd process which executes invocations forwarded to it, avoiding " +
+        "JVM startup for each command. Set " + DaemonState.RD_DAEMON + "=true to forward invocations which are " +
+        "run without a console and from the same working directory as the daemon.", name = "daemon")
+public class Daemon extends BaseCommand {
+
+    @CommandLine.Command(description = "Run the daemon in the foreground until stopped.")
+    public void start(
+            @CommandLine.Option(names = {"--threads"},
+                    description = "Max number of invocations to run at once (default 4)",
+                    defaultValue = "4")
+            int threads,
+            @CommandLine.Option(names = {"--idle"},
+                    description = "Stop after this many minutes without invocations (default 0: never)",
+                    defaultValue = "0")
+            int idle
+    ) throws IOException, InputError
+    {
+        if (threads < 1) {
+            throw new InputError("--threads must be at least 1");
+        }
+        File file = stateFile();
+        DaemonState running = DaemonState.load(file);
+        if (null != running && DaemonClient.isRunning(running)) {
+            throw new InputError(String.format("A daemon is already running with pid %s", running.getPid()));
+        }
+        PrintStream log = System.out;
+        try (DaemonServer server = new DaemonServer(file, threads, TimeUnit.MINUTES.toMillis(idle), log)) {
+            server.serve();
+        }
+    }
+
+    @CommandLine.Command(description = "Stop the running daemon.")
+    public boolean stop() throws IOException {
+        DaemonState state = DaemonState.load(stateFile());
+        if (null == state || !DaemonClient.isRunning(state)) {
+            getRdOutput().warning("No daemon is running");
+            return false;
+        }
+        DaemonClient.stop(state);
+        getRdOutput().info(String.format("Stopped daemon with pid %s", state.getPid()));
+        return true;
+    }
+
+    @CommandLine.Command(description = "Show the status of the running daemon.")
+    public boolean status() throws IOException {
+        DaemonState state = DaemonState.load(stateFile());
+        if (null == state || !DaemonClient.isRunning(state)) {
+            getRdOutput().warning("No daemon is running");
+            return false;
+        }
+        Integer result = DaemonClient.status(state);
+        return null != result && result == 0;
+    }
+
+    private File stateFile() {
+        return DaemonState.file(getRdTool().getAppConfig().getString(DaemonState.RD_DAEMON_FILE, null));
+    }
+}
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.Setter;
 import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
 import org.rundeck.client.api.RundeckApi;
 import org.rundeck.client.api.model.*;
 import org.rundeck.client.api.model.executions.MetricsResponse;
@@ -28,19 +30,34 @@ import org.rundeck.client.tool.InputError;
 import org.rundeck.client.tool.extension.BaseCommand;
 import org.rundeck.client.tool.extension.RdTool;
 import org.rundeck.client.tool.options.*;
+import org.rundeck.client.tool.util.BulkExecutor;
+import org.rundeck.client.tool.util.ExportCheckpoint;
+import org.rundeck.client.tool.util.FollowInterval;
+import org.rundeck.client.tool.util.FollowScheduler;
+import org.rundeck.client.tool.util.ParallelPager;
+import org.rundeck.client.util.ExecOutputParser;
 import org.rundeck.client.util.Format;
 import org.rundeck.client.util.RdClientConfig;
 import org.rundeck.client.util.ServiceClient;
 import org.rundeck.client.util.Util;
 import picocli.CommandLine;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -82,33 +99,170 @@ public class Executions extends BaseCommand {
     }
 
 
+    @Getter
+    @Setter
+    static class FollowQuery extends QueryOptions implements HasJobIdList {
+        @CommandLine.Option(
+                names = {"--jobids"},
+                arity = "1..*",
+                description = "Job ID list to include"
+        )
+        private List<String> jobIdList;
+    }
+
     @CommandLine.Command(description = "Follow the output of an execution. Restart from the beginning, or begin tailing as it " +
-            "runs.")
-    public boolean follow(@CommandLine.Mixin ExecutionsFollowOptions options) throws IOException, InputError {
+            "runs. Multiple executions can be followed concurrently by specifying several IDs, or by using query " +
+            "options to find them (default status: running), and each line of output will be prefixed with the " +
+            "execution ID.")
+    public boolean follow(
+            @CommandLine.Mixin ExecutionsFollowOptions options,
+            @CommandLine.Mixin FollowQuery query
+    ) throws IOException, InputError
+    {
 
         int max = 500;
+        FollowInterval interval = followInterval(options);
+
+        if (options.isIds() && options.getIds().size() == 1) {
+            String id = options.getIds().get(0);
+            ExecOutput output = startFollowOutput(
+                    getRdTool(),
+                    max,
+                    options.isRestart(),
+                    id,
+                    options.getTail(),
+                    true
+            );
+
+
+            return followOutputStreaming(
+                    getRdTool().getClient(),
+                    output,
+                    id,
+                    max,
+                    true,
+                    logReceiver(
+                            options.isProgress(),
+                            options.isQuiet(),
+                            getRdOutput(),
+                            options.isOutputFormat()
+                            ? Format.formatter(options.getOutputFormat(), ExecLog::toMap, "%", "")
+                            : null
+                    ),
+                    waitAdaptive(interval, max)
+            );
+        }
 
-        ExecOutput output = startFollowOutput(
-                getRdTool(),
-                max,
-                options.isRestart(),
-                options.getId(),
-                options.getTail(),
-                true
-        );
-
+        List<String> ids = options.isIds() ? options.getIds() : queryExecutionIds(query);
+        if (ids.isEmpty()) {
+            getRdOutput().info("No executions found to follow");
+            return true;
+        }
+        return followMultiple(options, ids, max);
+    }
 
-        return followOutput(
+    /**
+     * Follow several executions concurrently using a shared scheduler, output is prefixed with the execution ID
+     *
+     * @param options follow options
+     * @param ids     execution IDs
+     * @param max     max lines to retrieve with each request
+     *
+     * @return true if all executions succeeded
+     */
+    private boolean followMultiple(final ExecutionsFollowOptions options, final List<String> ids, final long max)
+            throws InputError
+    {
+        CommandOutput out = getRdOutput();
+        Function<ExecLog, String> formatter = options.isOutputFormat()
+                                              ? Format.formatter(options.getOutputFormat(), ExecLog::toMap, "%", "")
+                                              : e -> e.log;
+        Map<String, CompletableFuture<String>> results = new LinkedHashMap<>();
+        try (FollowScheduler scheduler = new FollowScheduler(
                 getRdTool().getClient(),
-                output,
-                options.isProgress(),
-                options.isQuiet(),
-                options.getId(),
+                options.getThreads(),
                 max,
-                getRdOutput(),
-                options.isOutputFormat() ? Format.formatter(options.getOutputFormat(), ExecLog::toMap, "%", "") : null,
-                waitUnlessInterrupt(2000)
-        );
+                () -> new FollowInterval(options.getPollMin(), options.getPollMax())
+        )) {
+            for (String id : ids) {
+                Consumer<List<ExecLog>> receiver = logReceiver(
+                        options.isProgress(),
+                        options.isQuiet(),
+                        out,
+                        entry -> String.format("[%s] %s", id, formatter.apply(entry))
+                );
+                results.put(id, scheduler.follow(id, options.isRestart(), options.getTail(), entries -> {
+                    synchronized (out) {
+                        receiver.accept(entries);
+                    }
+                }));
+            }
+            boolean success = true;
+            for (Map.Entry<String, CompletableFuture<String>> entry : results.entrySet()) {
+                String state;
+                try {
+                    state = entry.getValue().get();
+                } catch (ExecutionException e) {
+                    out.error(String.format("[%s] Failed to follow output: %s", entry.getKey(), e.getCause().getMessage()));
+                    success = false;
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                if (!options.isQuiet()) {
+                    out.info(String.format("[%s] %s", entry.getKey(), state));
+                }
+                success &= "succeeded".equals(state);
+            }
+            return success;
+        }
+    }
+
+    /**
+     * @param query query options
+     *
+     * @return IDs of executions matching the query, all pages are retrieved
+     */
+    private List<String> queryExecutionIds(final FollowQuery query) throws IOException, InputError {
+        String project = getRdTool().projectOrEnv(query);
+        int max = 100;
+        Map<String, String> params = createQueryParams(query, max, 0);
+        if (!query.isStatusFilter()) {
+            params.put("statusFilter", "running");
+        }
+        List<String> ids = new ArrayList<>();
+        int offset = 0;
+        while (offset >= 0) {
+            params.put("offset", Integer.toString(offset));
+            ExecutionList executionList = apiCall(api -> api.listExecutions(
+                    project,
+                    params,
+                    query.getJobIdList(),
+                    query.getExcludeJobIdList(),
+                    query.getJobList(),
+                    query.getExcludeJobList()
+            ));
+            executionList.getExecutions().stream().map(Execution::getId).forEach(ids::add);
+            Paging page = executionList.getPaging();
+            offset = null != page && page.hasMoreResults() ? page.nextPageOffset() : -1;
+        }
+        return ids;
+    }
+
+    /**
+     * @param options follow options
+     *
+     * @return interval for polling output
+     *
+     * @throws InputError if the interval options are invalid
+     */
+    static FollowInterval followInterval(final FollowOptions options) throws InputError {
+        try {
+            return new FollowInterval(options.getPollMin(), options.getPollMax());
+        } catch (IllegalArgumentException e) {
+            throw new InputError(e.getMessage());
+        }
     }
 
 
@@ -132,7 +286,7 @@ public class Executions extends BaseCommand {
     }
 
     /**
-     * Follow output, wait 2s between refreshing data from server, halts when interrupted
+     * Follow output, using the wait function between refreshing data from server, halts when interrupted
      *
      * @param progress show progress
      * @param quiet quell log output
@@ -157,7 +311,25 @@ public class Executions extends BaseCommand {
             final BooleanSupplier waitFunc
     ) throws IOException
     {
-        return followOutput(serviceClient, output, id, max, true, entries -> {
+        return followOutput(serviceClient, output, id, max, true, logReceiver(progress, quiet, out, formatter), waitFunc);
+    }
+
+    /**
+     * @param progress  show progress
+     * @param quiet     quell log output
+     * @param out       output
+     * @param formatter formatter
+     *
+     * @return receiver which writes log entries to the output
+     */
+    public static Consumer<List<ExecLog>> logReceiver(
+            final boolean progress,
+            final boolean quiet,
+            final CommandOutput out,
+            final Function<ExecLog, String> formatter
+    )
+    {
+        return entries -> {
             if (progress && !entries.isEmpty()) {
                 out.output(".");
             } else if (!quiet) {
@@ -172,7 +344,7 @@ public class Executions extends BaseCommand {
                     }
                 }
             }
-        }, waitFunc);
+        };
     }
 
     /**
@@ -195,6 +367,30 @@ public class Executions extends BaseCommand {
             Consumer<List<ExecLog>> receiver,
             BooleanSupplier waitFunc
     ) throws IOException
+    {
+        return followOutput(serviceClient, output, id, max, compacted, receiver, previous -> waitFunc.getAsBoolean());
+    }
+
+    /**
+     * Follow output until execution completes and output is fully read, or interrupted
+     *
+     * @param id        execution id
+     * @param max       max lines to retrieve with each request
+     * @param compacted if true, request compacted data
+     * @param receiver  receive log events
+     * @param waitFunc  function for waiting given the previous output, return false to halt
+     *
+     * @return true if execution is successful
+     */
+    public static boolean followOutput(
+            final ServiceClient<RundeckApi> serviceClient,
+            final ExecOutput output,
+            final String id,
+            long max,
+            final boolean compacted,
+            Consumer<List<ExecLog>> receiver,
+            Predicate<ExecOutput> waitFunc
+    ) throws IOException
     {
         boolean done = false;
         String status = null;
@@ -204,7 +400,7 @@ public class Executions extends BaseCommand {
             status = execOutput.execState;
             done = execOutput.execCompleted && execOutput.completed;
             if (!done) {
-                if (!waitFunc.getAsBoolean()){
+                if (!waitFunc.test(execOutput)) {
                     break;
                 }
                 final ExecOutput passOutput = execOutput;
@@ -221,6 +417,120 @@ public class Executions extends BaseCommand {
     }
 
 
+    /**
+     * Follow output until execution completes and output is fully read, or interrupted. Each response is parsed as
+     * it is read, and log entries are passed to the receiver in small chunks instead of as a fully materialized page.
+     *
+     * @param output    initial output
+     * @param id        execution id
+     * @param max       max lines to retrieve with each request
+     * @param compacted if true, request compacted data
+     * @param receiver  receive log events
+     * @param waitFunc  function for waiting given the previous output, return false to halt
+     *
+     * @return true if execution is successful
+     */
+    public static boolean followOutputStreaming(
+            final ServiceClient<RundeckApi> serviceClient,
+            final ExecOutput output,
+            final String id,
+            long max,
+            final boolean compacted,
+            Consumer<List<ExecLog>> receiver,
+            Predicate<ExecOutput> waitFunc
+    ) throws IOException
+    {
+        receiver.accept(output.decompactEntries());
+        ExecOutput execOutput = output;
+        while (!(execOutput.execCompleted && execOutput.completed)) {
+            if (!waitFunc.test(execOutput)) {
+                break;
+            }
+            execOutput = ExecOutputParser.getOutput(
+                    serviceClient,
+                    id,
+                    execOutput.offset,
+                    execOutput.lastModified,
+                    max,
+                    compacted,
+                    100,
+                    receiver
+            );
+        }
+        return "succeeded".equals(execOutput.execState);
+    }
+
+
+    @Getter
+    @Setter
+    static class OutputCmd extends ExecutionIdOption {
+        @CommandLine.Option(names = {"--all"},
+                description = "Download the complete log, waiting until the execution completes if it is still running. " +
+                              "By default only the log output available now is downloaded.")
+        private boolean all;
+
+        @CommandLine.Option(names = {"--to-file"},
+                description = "File to write the log text to, or '-' for stdout (default)")
+        private File toFile;
+
+        @CommandLine.Option(names = {"--maxlines"},
+                defaultValue = "50000",
+                description = "Maximum lines to retrieve with each request, default: 50000")
+        private long maxLines;
+
+        public boolean isToFile() {
+            return toFile != null && !"-".equals(toFile.getName());
+        }
+    }
+
+    @CommandLine.Command(description = "Download the log text of an execution. The plain text output is written " +
+            "directly to the destination without parsing log entries.")
+    public boolean output(@CommandLine.Mixin OutputCmd options) throws IOException, InputError {
+        ServiceClient<RundeckApi> client = getRdTool().getClient();
+        FollowInterval interval = FollowInterval.defaults();
+        ExecOutput state;
+        BufferedSink sink = Okio.buffer(options.isToFile() ? Okio.sink(options.getToFile()) : Okio.sink(System.out));
+        long written = 0;
+        try {
+            long offset = 0;
+            long lastmod = 0;
+            while (true) {
+                ExecOutputParser.TextPage page =
+                        ExecOutputParser.writeText(client, options.getId(), offset, lastmod, options.getMaxLines(), sink);
+                state = page.getOutput();
+                written += page.getBytes();
+                boolean caughtUp = state.unmodified || state.empty || state.offset == offset;
+                offset = state.offset;
+                lastmod = state.lastModified;
+                //the log is only complete once the execution has finished
+                if (state.completed || (!options.isAll() && caughtUp)) {
+                    break;
+                }
+                long delay = interval.nextDelay(state, options.getMaxLines());
+                if (delay > 0) {
+                    sink.flush();
+                    if (!waitUnlessInterrupt(delay).getAsBoolean()) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            if (options.isToFile()) {
+                sink.close();
+            } else {
+                sink.flush();
+            }
+        }
+        if (options.isToFile()) {
+            getRdOutput().info(String.format("Wrote %d bytes of log output to file %s", written, options.getToFile()));
+        }
+        if (!state.execCompleted) {
+            getRdOutput().warning(String.format("Execution %s has not completed: %s", options.getId(), state.execState));
+        }
+        return state.execCompleted && "succeeded".equals(state.execState);
+    }
+
+
     @CommandLine.Command(description = "Get info about a single execution by ID.")
     public void info(@CommandLine.Mixin ExecutionIdOption options, @CommandLine.Mixin ExecutionOutputFormatOption outputFormatOption) throws IOException, InputError {
 
@@ -319,10 +629,9 @@ public class Executions extends BaseCommand {
 
         ExecutionList result = null;
         boolean verboseInfo = !outputFormatOption.isOutputFormat() && !autopage || interactive;
-        List<Stream<Execution>> allResults = new ArrayList<>();
-        while (offset >= 0) {
-            query.put("offset", Integer.toString(offset));
-            ExecutionList executionList = apiCall(api -> api
+        PageLoader loader = pageOffset -> {
+            query.put("offset", Integer.toString(pageOffset));
+            return apiCall(api -> api
                     .listExecutions(
                             project,
                             query,
@@ -331,12 +640,14 @@ public class Executions extends BaseCommand {
                             options.getJobList(),
                             options.getExcludeJobList()
                     ));
+        };
+        while (offset >= 0) {
+            ExecutionList executionList = loader.load(offset);
             result = executionList;
             Paging page = executionList.getPaging();
             if (verboseInfo) {
                 out.info(page);
             }
-            allResults.add(executionList.getExecutions().stream());
 
             if (interactive) {
                 outputExecutionList(outputFormatOption, out, getRdTool().getAppConfig(), executionList.getExecutions().stream());
@@ -348,8 +659,8 @@ public class Executions extends BaseCommand {
                                           : null
                 ));
             }
-            if (!autopage) {
-                break;
+            if (!interactive) {
+                return outputPages(outputFormatOption, out, executionList, autopage ? loader : null);
             }
             if (!page.hasMoreResults()) {
                 break;
@@ -403,12 +714,213 @@ public class Executions extends BaseCommand {
             }
 
         }
-        if (!interactive) {
-            outputExecutionList(outputFormatOption, out, getRdTool().getAppConfig(), allResults.stream().flatMap(a -> a));
-        }
         return result;
     }
 
+    /**
+     * Loads a page of executions
+     */
+    @FunctionalInterface
+    interface PageLoader {
+        ExecutionList load(int offset) throws IOException, InputError;
+    }
+
+    /**
+     * Wraps a checked exception thrown while loading a page during output
+     */
+    private static class PageLoadException extends RuntimeException {
+        PageLoadException(final Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Output the first page and any following pages as a single stream, each following page is loaded when the
+     * output has consumed the previous one, so results are not collected in memory
+     *
+     * @param first  first page
+     * @param loader page loader, or null to output only the first page
+     *
+     * @return the last page loaded
+     */
+    private ExecutionList outputPages(
+            final ExecutionOutputFormatOption outputFormatOption,
+            final CommandOutput out,
+            final ExecutionList first,
+            final PageLoader loader
+    ) throws IOException, InputError
+    {
+        ExecutionList[] last = new ExecutionList[]{first};
+        Iterator<List<Execution>> following = new Iterator<List<Execution>>() {
+            @Override
+            public boolean hasNext() {
+                return null != loader && last[0].getPaging().hasMoreResults();
+            }
+
+            @Override
+            public List<Execution> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    last[0] = loader.load(last[0].getPaging().nextPageOffset());
+                } catch (IOException | InputError e) {
+                    throw new PageLoadException(e);
+                }
+                return last[0].getExecutions();
+            }
+        };
+        Stream<Execution> executions = Stream.concat(
+                first.getExecutions().stream(),
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(following, Spliterator.ORDERED), false)
+                             .flatMap(List::stream)
+        );
+        try {
+            outputExecutionList(outputFormatOption, out, getRdTool().getAppConfig(), executions);
+        } catch (PageLoadException e) {
+            if (e.getCause() instanceof InputError) {
+                throw (InputError) e.getCause();
+            }
+            throw (IOException) e.getCause();
+        }
+        return last[0];
+    }
+
+    @Getter
+    @Setter
+    static class ExportCmd extends QueryOptions implements HasJobIdList {
+        @CommandLine.Option(
+                names = {"--jobids", "-i"},
+                arity = "1..*",
+                description = "Job ID list to include"
+        )
+        private List<String> jobIdList;
+
+        @CommandLine.Option(names = {"--file", "-f"},
+                required = true,
+                description = "File to write NDJSON execution records to")
+        private File file;
+
+        @CommandLine.Option(names = {"--checkpoint"},
+                description = "Checkpoint file used to resume an interrupted export. Default: <file>.checkpoint")
+        private File checkpoint;
+
+        public boolean isCheckpoint() {
+            return checkpoint != null;
+        }
+
+        @CommandLine.Option(names = {"--parallel"},
+                defaultValue = "4",
+                description = "Maximum number of pages to request concurrently. Default: 4")
+        private int parallel;
+
+        @CommandLine.Option(names = {"--pagesize"},
+                defaultValue = "200",
+                description = "Number of executions to request in each page. Default: 200")
+        private int pageSize;
+    }
+
+    @CommandLine.Command(description = "Export previous executions for a project to a file as newline delimited JSON. " +
+            "Pages are requested concurrently and written in order as they arrive. A checkpoint file records the " +
+            "last fully written offset, so that rerunning the same export after an interruption resumes from that " +
+            "point. Use a fixed time range (e.g. --older) so that results do not shift while exporting.")
+    public void export(@CommandLine.Mixin ExportCmd options) throws IOException, InputError {
+        if (options.getParallel() < 1) {
+            throw new InputError("--parallel must be at least 1");
+        }
+        if (options.getPageSize() < 1) {
+            throw new InputError("--pagesize must be at least 1");
+        }
+        String project = getRdTool().projectOrEnv(options);
+        ExportCheckpoint checkpoint = new ExportCheckpoint(
+                options.isCheckpoint()
+                ? options.getCheckpoint()
+                : new File(options.getFile().getPath() + ".checkpoint"),
+                exportQuery(project, options)
+        );
+        boolean resume = checkpoint.load();
+        if (resume && !checkpoint.matchesQuery()) {
+            throw new InputError(String.format(
+                    "Checkpoint %s was recorded for a different query, remove the checkpoint to restart the export",
+                    checkpoint.getFile()
+            ));
+        }
+        int start = resume ? checkpoint.getOffset() : 0;
+        int[] count = new int[]{0};
+
+        ParallelPager.PageFetcher<ExecutionList> fetcher = offset -> {
+            Map<String, String> query = createQueryParams(options, options.getPageSize(), offset);
+            return apiCall(api -> api.listExecutions(
+                    project,
+                    query,
+                    options.getJobIdList(),
+                    options.getExcludeJobIdList(),
+                    options.getJobList(),
+                    options.getExcludeJobList()
+            ));
+        };
+
+        try (
+                FileChannel channel = FileChannel.open(
+                        options.getFile().toPath(),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE
+                );
+                ParallelPager<ExecutionList> pager = new ParallelPager<>(options.getParallel())
+        ) {
+            if (resume) {
+                if (channel.size() < checkpoint.getLength()) {
+                    throw new InputError(String.format(
+                            "Output file %s is shorter than recorded in checkpoint %s, remove the checkpoint to " +
+                            "restart the export",
+                            options.getFile(),
+                            checkpoint.getFile()
+                    ));
+                }
+                getRdOutput().info(String.format("Resuming export at offset %d", start));
+            }
+            channel.truncate(resume ? checkpoint.getLength() : 0);
+            channel.position(channel.size());
+            BufferedSink sink = Okio.buffer(Okio.sink(Channels.newOutputStream(channel)));
+
+            ParallelPager.PageConsumer<ExecutionList> writer = (offset, page) -> {
+                for (Execution execution : page.getExecutions()) {
+                    sink.write(JSON.writeValueAsBytes(execution));
+                    sink.writeByte('\n');
+                }
+                sink.flush();
+                count[0] += page.getExecutions().size();
+                checkpoint.save(offset + page.getExecutions().size(), channel.position());
+            };
+
+            ExecutionList first = fetcher.fetch(start);
+            writer.accept(start, first);
+            Paging paging = first.getPaging();
+            //use the server's page size in case it limited the max
+            int step = paging.getMax() > 0 ? paging.getMax() : options.getPageSize();
+            if (paging.getCount() > 0) {
+                pager.fetch(start + step, paging.getTotal(), step, fetcher, writer);
+            }
+        }
+        checkpoint.delete();
+        getRdOutput().info(String.format("Exported %d executions to %s", count[0], options.getFile()));
+    }
+
+    /**
+     * @return canonical form of the export query, excluding paging
+     */
+    String exportQuery(final String project, final ExportCmd options) {
+        return String.join(
+                "\n",
+                project,
+                new TreeMap<>(createQueryParams(options, null, null)).toString(),
+                String.valueOf(options.getJobIdList()),
+                String.valueOf(options.getExcludeJobIdList()),
+                String.valueOf(options.getJobList()),
+                String.valueOf(options.getExcludeJobList())
+        );
+    }
+
     private Map<String, String> createQueryParams(
             final QueryOptions options,
             final Integer max,
@@ -473,7 +985,7 @@ public class Executions extends BaseCommand {
     {
         if (options.isVerbose()) {
 
-            out.output(executions.map(e -> e.getInfoMap(config)).collect(Collectors.toList()));
+            out.outputStream(executions.map(e -> e.getInfoMap(config)));
             return;
         }
         final Function<Execution, ?> outformat;
@@ -557,24 +1069,61 @@ public class Executions extends BaseCommand {
         @CommandLine.Option(names = {"-R", "--require"},
                 description = "Treat 0 query results as failure, otherwise succeed if no executions were returned")
         private boolean require;
+
+        @CommandLine.Option(names = {"--chunksize"},
+                defaultValue = "100",
+                description = "Number of executions to delete in each request. Default: 100")
+        private int chunkSize;
+
+        @CommandLine.Option(names = {"--parallel"},
+                defaultValue = "2",
+                description = "Maximum number of delete requests to send concurrently. Default: 2")
+        private int parallel;
+
+        @CommandLine.Option(names = {"--retry"},
+                defaultValue = "1",
+                description = "Number of times to retry deleting executions which failed. Default: 1")
+        private int retry;
+
+        @CommandLine.Option(names = {"--failures"},
+                description = "Write a JSON report of executions which could not be deleted to this file")
+        private File failures;
+
+        public boolean isFailures() {
+            return failures != null;
+        }
     }
 
     @CommandLine.Command(description = "Find and delete executions in a project. Use the query options to find and delete " +
-            "executions, or specify executions with the `idlist` option.")
+            "executions, or specify executions with the `idlist` option. Executions are deleted in chunks, with " +
+            "several chunks deleted concurrently while further query pages are fetched (with --autopage).")
     public boolean deletebulk(@CommandLine.Mixin BulkDeleteCmd options,
                               @CommandLine.Mixin PagingResultOptions paging,
                               @CommandLine.Mixin ExecutionOutputFormatOption outputFormatOption) throws IOException, InputError {
+        if (options.getChunkSize() < 1) {
+            throw new InputError("--chunksize must be at least 1");
+        }
+        if (options.getParallel() < 1) {
+            throw new InputError("--parallel must be at least 1");
+        }
+        if (options.getRetry() < 0) {
+            throw new InputError("--retry cannot be negative");
+        }
 
         List<String> execIds;
+        ExecutionPager pager = null;
+        int total;
         if (options.isIdlist()) {
             execIds = Arrays.asList(options.getIdlist().split("\\s*,\\s*"));
+            total = execIds.size();
         } else {
-            ExecutionList executionList = query(true, options, options, paging, outputFormatOption);
+            pager = new ExecutionPager(options, paging);
+            ExecutionList executionList = pager.fetch(pager.offset);
+            outputExecutionList(outputFormatOption, getRdOutput(), getRdTool().getAppConfig(),
+                                executionList.getExecutions().stream()
+            );
 
-            execIds = executionList.getExecutions()
-                    .stream()
-                    .map(Execution::getId)
-                    .collect(Collectors.toList());
+            execIds = executionIds(executionList);
             if (execIds.size() < 1) {
                 if (!options.isRequire()) {
                     getRdOutput().info("No executions found to delete");
@@ -583,32 +1132,173 @@ public class Executions extends BaseCommand {
                 }
                 return !options.isRequire();
             }
+            Paging page = executionList.getPaging();
+            if (options.isAutoLoadPages() && page.hasMoreResults()) {
+                pager.step = page.getMax() > 0 ? page.getMax() : pager.max;
+                pager.end = page.getTotal();
+                total = page.getTotal() - pager.offset;
+            } else {
+                pager = null;
+                total = execIds.size();
+            }
         }
 
         if (!options.isConfirm()) {
             //request confirmation
-            String s = System.console().readLine("Really delete %d executions? (y/N) ", execIds.size());
+            String s = System.console().readLine("Really delete %d executions? (y/N) ", total);
 
             if (!"y".equals(s)) {
                 getRdOutput().warning("Not deleting executions.");
                 return false;
             }
         }
-        final List<String> finalExecIds = execIds;
-        BulkExecutionDeleteResponse result = apiCall(api -> api.deleteExecutions(new BulkExecutionDelete
-                                                                                         (finalExecIds)));
+
+        BulkExecutor.Result<String, BulkExecutionDeleteResponse.DeleteFailure> result;
+        AtomicInteger deleted = new AtomicInteger();
+        try (BulkExecutor<String, BulkExecutionDeleteResponse.DeleteFailure> executor = new BulkExecutor<>(
+                options.getParallel(),
+                options.getRetry(),
+                BulkExecutionDeleteResponse.DeleteFailure::getId,
+                chunk -> getRdOutput().info(String.format(
+                        "Deleted %d/%d executions",
+                        deleted.addAndGet(chunk.getSucceeded().size()),
+                        total
+                ))
+        )) {
+            if (null != pager) {
+                //delete pages from last to first, so deleting does not change the offset of pages yet to be fetched
+                for (int offset = pager.lastOffset(); offset > pager.offset; offset -= pager.step) {
+                    ExecutionList page = pager.fetch(offset);
+                    outputExecutionList(outputFormatOption, getRdOutput(), getRdTool().getAppConfig(),
+                                        page.getExecutions().stream()
+                    );
+                    submitDeletes(executor, executionIds(page), options.getChunkSize());
+                }
+            }
+            submitDeletes(executor, execIds, options.getChunkSize());
+            result = executor.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+
         if (!result.isAllsuccessful()) {
-            getRdOutput().error(String.format("Failed to delete %d executions:", result.getFailedCount()));
-            getRdOutput().error(result.getFailures()
+            getRdOutput().error(String.format(
+                    "Failed to delete %d executions (deleted %d):",
+                    result.getFailedCount(),
+                    result.getSucceeded().size()
+            ));
+            getRdOutput().error(result.getFailed()
                     .stream()
                     .map(BulkExecutionDeleteResponse.DeleteFailure::toString)
                     .collect(Collectors.toList()));
-        }else{
-            getRdOutput().info(String.format("Deleted %d executions.", result.getSuccessCount()));
+            getRdOutput().error(result.getErrors()
+                    .stream()
+                    .map(BulkExecutor.ChunkError::toString)
+                    .collect(Collectors.toList()));
+        } else {
+            getRdOutput().info(String.format("Deleted %d executions.", result.getSucceeded().size()));
+        }
+        if (options.isFailures()) {
+            writeDeleteFailures(options.getFailures(), result);
+            getRdOutput().info(String.format("Wrote failure report to %s", options.getFailures()));
         }
         return result.isAllsuccessful();
     }
 
+    private static List<String> executionIds(final ExecutionList executionList) {
+        return executionList.getExecutions()
+                .stream()
+                .map(Execution::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void submitDeletes(
+            final BulkExecutor<String, BulkExecutionDeleteResponse.DeleteFailure> executor,
+            final List<String> execIds,
+            final int chunkSize
+    ) throws InterruptedException
+    {
+        for (List<String> chunk : BulkExecutor.chunks(execIds, chunkSize)) {
+            executor.submit(chunk, ids -> {
+                BulkExecutionDeleteResponse response = apiCall(api -> api.deleteExecutions(new BulkExecutionDelete(
+                        ids)));
+                List<BulkExecutionDeleteResponse.DeleteFailure> failures =
+                        null != response.getFailures() ? response.getFailures() : Collections.emptyList();
+                Set<String> failed = failures.stream()
+                        .map(BulkExecutionDeleteResponse.DeleteFailure::getId)
+                        .collect(Collectors.toSet());
+                return new BulkExecutor.Result<>(
+                        ids.size(),
+                        ids.stream().filter(id -> !failed.contains(id)).collect(Collectors.toList()),
+                        failures
+                );
+            });
+        }
+    }
+
+    /**
+     * Write a JSON list of failed deletions, including IDs of chunks whose request failed entirely
+     */
+    private static void writeDeleteFailures(
+            final File file,
+            final BulkExecutor.Result<String, BulkExecutionDeleteResponse.DeleteFailure> result
+    ) throws IOException
+    {
+        List<Map<String, String>> report = new ArrayList<>();
+        for (BulkExecutionDeleteResponse.DeleteFailure failure : result.getFailed()) {
+            Map<String, String> item = new LinkedHashMap<>();
+            item.put("id", failure.getId());
+            item.put("message", failure.getMessage());
+            report.add(item);
+        }
+        for (BulkExecutor.ChunkError error : result.getErrors()) {
+            for (String id : error.getIds()) {
+                Map<String, String> item = new LinkedHashMap<>();
+                item.put("id", id);
+                item.put("message", error.getMessage());
+                report.add(item);
+            }
+        }
+        JSON.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+
+    /**
+     * Fetches pages of an execution query at arbitrary offsets
+     */
+    private class ExecutionPager {
+        final BulkDeleteCmd options;
+        final String project;
+        final int offset;
+        final int max;
+        int step;
+        int end;
+
+        ExecutionPager(final BulkDeleteCmd options, final PagingResultOptions paging) throws InputError {
+            this.options = options;
+            this.project = getRdTool().projectOrEnv(options);
+            this.offset = paging.isOffset() ? paging.getOffset() : 0;
+            this.max = paging.isMax() ? paging.getMax() : 20;
+            this.step = max;
+        }
+
+        ExecutionList fetch(final int pageOffset) throws IOException, InputError {
+            Map<String, String> query = createQueryParams(options, max, pageOffset);
+            return apiCall(api -> api.listExecutions(
+                    project,
+                    query,
+                    options.getJobIdList(),
+                    options.getExcludeJobIdList(),
+                    options.getJobList(),
+                    options.getExcludeJobList()
+            ));
+        }
+
+        int lastOffset() {
+            return offset + ((end - offset - 1) / step) * step;
+        }
+    }
+
     public static boolean maybeFollow(
             final RdTool rdTool,
             final FollowOptions options,
@@ -620,6 +1310,7 @@ public class Executions extends BaseCommand {
         if (!options.isFollow()) {
             return true;
         }
+        FollowInterval interval = followInterval(options);
         ExecOutput execOutputCall = startFollowOutput(
                 rdTool,
                 500,
@@ -628,25 +1319,43 @@ public class Executions extends BaseCommand {
                 0,
                 true
         );
-        return followOutput(
+        return followOutputStreaming(
                 rdTool.getClient(),
                 execOutputCall,
-                options.isProgress(),
-                options.isQuiet(),
                 id,
                 500,
-                output,
-                formatOptions.isOutputFormat() ? Format.formatter(formatOptions.getOutputFormat(), ExecLog::toMap, "%", "") : null,
-                waitUnlessInterrupt(2000)
+                true,
+                logReceiver(
+                        options.isProgress(),
+                        options.isQuiet(),
+                        output,
+                        formatOptions.isOutputFormat()
+                        ? Format.formatter(formatOptions.getOutputFormat(), ExecLog::toMap, "%", "")
+                        : null
+                ),
+                waitAdaptive(interval, 500)
         );
     }
 
+    /**
+     * @param interval poll interval
+     * @param max      max lines requested
+     *
+     * @return wait function using the interval for the previous output, which returns false if interrupted
+     */
+    public static Predicate<ExecOutput> waitAdaptive(final FollowInterval interval, final long max) {
+        return previous -> {
+            long delay = interval.nextDelay(previous, max);
+            return delay < 1 || waitUnlessInterrupt(delay).getAsBoolean();
+        };
+    }
+
     /**
      * @param millis wait time
      *
      * @return wait function which returns false if interrupted, true otherwise
      */
-    private static BooleanSupplier waitUnlessInterrupt(final int millis) {
+    private static BooleanSupplier waitUnlessInterrupt(final long millis) {
         return () -> {
             try {
                 Thread.sleep(millis);
@@ -26,20 +26,30 @@ import org.rundeck.client.api.model.scheduler.ScheduledJobItem;
 import org.rundeck.client.tool.InputError;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
 import org.rundeck.client.api.RundeckApi;
 import org.rundeck.client.api.model.*;
+import org.rundeck.client.tool.commands.jobs.Cache;
 import org.rundeck.client.tool.commands.jobs.Files;
 import org.rundeck.client.tool.options.*;
+import org.rundeck.client.tool.util.BulkExecutor;
 import org.rundeck.client.util.Client;
 import org.rundeck.client.util.Format;
 import org.rundeck.client.util.ServiceClient;
 import org.rundeck.client.util.Util;
 import retrofit2.Call;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -56,7 +66,8 @@ import java.util.stream.Collectors;
         name = "jobs",
         description = "List and manage Jobs.",
         subcommands = {
-                Files.class
+                Files.class,
+                Cache.class
         })
 public class Jobs extends BaseCommand {
 
@@ -84,12 +95,21 @@ public class Jobs extends BaseCommand {
             return max != null && max > 0;
         }
 
+        @CommandLine.Option(names = {"--parallel"},
+                description = "Number of batches to delete concurrently. Default: 1")
+        Integer parallel;
+
+        boolean isParallel() {
+            return parallel != null && parallel > 0;
+        }
+
     }
 
     @CommandLine.Command(description = "Delete jobs matching the query parameters. Optionally save the definitions to a file " +
             "before deleting from the server. " +
             "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
-            "required.")
+            "required. Batches can be deleted concurrently with --parallel, and after confirmation the definitions of " +
+            "each batch are saved to the file before it is deleted. Failed batches do not stop the remaining batches.")
     public boolean purge(@CommandLine.Mixin Purge options,
                          @CommandLine.Mixin JobOutputFormatOption jobOutputFormatOption,
                          @CommandLine.Mixin JobFileOptions jobFileOptions,
@@ -118,9 +138,6 @@ public class Jobs extends BaseCommand {
             }
         }
 
-        if (jobFileOptions.isFile()) {
-            list(jobOutputFormatOption, jobFileOptions, jobListOptions);
-        }
         int idsSize = ids.size();
         int idsToDelete = options.isMax() ? Math.min(idsSize, options.getMax()) : idsSize;
         if (!options.isConfirm()) {
@@ -137,26 +154,230 @@ public class Jobs extends BaseCommand {
                 return false;
             }
         }
+        if (idsToDelete < 1) {
+            getRdOutput().info(String.format("%d Jobs were deleted%n", 0));
+            return true;
+        }
         int batch = options.isBatchSize() ? Math.min(idsToDelete, options.getBatchSize()) : idsToDelete;
-        int total = 0;
-        for (int i = 0; i < idsToDelete; ) {
-            int batchToUse = Math.min(batch, idsToDelete - total);
-            final List<String> finalIds = new ArrayList<>(batchToUse);
-            finalIds.addAll(ids.subList(i, i + batchToUse));
-            DeleteJobsResult deletedJobs = getRdTool().apiCall(api -> api.deleteJobsBulk(new BulkJobDelete(finalIds)));
-            if (!deletedJobs.isAllsuccessful()) {
-                getRdOutput().error(String.format("Failed to delete %d Jobs%n", deletedJobs.getFailed().size()));
-                getRdOutput().output(deletedJobs.getFailed().stream().map(DeleteJob::toBasicString).collect(Collectors.toList()));
-                return false;
+        List<List<String>> batches = BulkExecutor.chunks(ids.subList(0, idsToDelete), batch);
+
+        BulkExecutor.Result<DeleteJob, DeleteJob> result;
+        try (
+                JobsBackup backup = jobFileOptions.isFile()
+                                    ? new JobsBackup(
+                                            getRdTool().projectOrEnv(jobListOptions),
+                                            jobFileOptions
+                                    )
+                                    : null;
+                BulkExecutor<DeleteJob, DeleteJob> executor = new BulkExecutor<>(
+                        options.isParallel() ? options.getParallel() : 1,
+                        0,
+                        DeleteJob::getId,
+                        null
+                )
+        ) {
+            for (List<String> batchIds : batches) {
+                executor.submit(batchIds, finalIds -> {
+                    if (null != backup) {
+                        backup.write(finalIds);
+                    }
+                    DeleteJobsResult deletedJobs = getRdTool().apiCall(api -> api.deleteJobsBulk(new BulkJobDelete(
+                            finalIds)));
+                    return new BulkExecutor.Result<>(
+                            finalIds.size(),
+                            deletedJobs.getSucceeded(),
+                            deletedJobs.getFailed()
+                    );
+                });
+            }
+            result = executor.await();
+            if (null != backup && !jobOutputFormatOption.isOutputFormat()) {
+                getRdOutput().info(String.format(
+                        "Wrote %d bytes of %s to file %s%n",
+                        backup.finish(),
+                        jobFileOptions.getFormat(),
+                        jobFileOptions.getFile()
+                ));
             }
-            total += finalIds.size();
-            i += batchToUse;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
         }
 
-        getRdOutput().info(String.format("%d Jobs were deleted%n", total));
+        int deleted = idsToDelete - result.getFailedCount();
+        if (!result.isAllsuccessful()) {
+            getRdOutput().error(String.format("Failed to delete %d Jobs%n", result.getFailedCount()));
+            getRdOutput().output(result.getFailed().stream().map(DeleteJob::toBasicString).collect(Collectors.toList()));
+            getRdOutput().output(result.getErrors()
+                                         .stream()
+                                         .map(BulkExecutor.ChunkError::toString)
+                                         .collect(Collectors.toList()));
+            getRdOutput().info(String.format("%d Jobs were deleted%n", deleted));
+            return false;
+        }
+
+        getRdOutput().info(String.format("%d Jobs were deleted%n", deleted));
         return true;
     }
 
+    /**
+     * Writes the exported definitions of each purge batch to a single backup file. XML exports are merged into one
+     * joblist document, YAML job lists are appended.
+     */
+    private class JobsBackup
+            implements Closeable
+    {
+        /**
+         * Bytes held back at the end of each export to find the end tag
+         */
+        private static final long TAIL_BYTES = 1024;
+        private static final long COPY_BYTES = 8192;
+        private final ByteString joblistStart = ByteString.encodeUtf8("<joblist");
+        private final ByteString joblistEnd = ByteString.encodeUtf8("</joblist>");
+        private final String project;
+        private final JobFileOptions.Format format;
+        private final OutputStream out;
+        private final boolean stdout;
+        private long total;
+        private boolean finished;
+
+        JobsBackup(final String project, final JobFileOptions fileOptions) throws IOException {
+            this.project = project;
+            this.format = fileOptions.getFormat();
+            this.stdout = "-".equals(fileOptions.getFile().getName());
+            this.out = stdout ? System.out : new FileOutputStream(fileOptions.getFile());
+            if (format == JobFileOptions.Format.xml) {
+                writeString("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<joblist>\n");
+            }
+        }
+
+        /**
+         * Export the jobs to a temp file, then append their definitions to the output, so that batches are
+         * downloaded concurrently and written whole, one at a time
+         *
+         * @param ids job IDs
+         */
+        void write(final List<String> ids) throws IOException, InputError {
+            File temp = File.createTempFile("rd-purge-", "." + format);
+            try {
+                try (ResponseBody body = getRdTool().apiCall(api -> api.exportJobs(
+                        project,
+                        String.join(",", ids),
+                        format.toString()
+                ))) {
+                    if ((format != JobFileOptions.Format.yaml ||
+                         !ServiceClient.hasAnyMediaType(body.contentType(), Client.MEDIA_TYPE_YAML, Client.MEDIA_TYPE_TEXT_YAML)) &&
+                        !ServiceClient.hasAnyMediaType(body.contentType(), Client.MEDIA_TYPE_XML, Client.MEDIA_TYPE_TEXT_XML)) {
+
+                        throw new IllegalStateException("Unexpected response format: " + body.contentType());
+                    }
+                    try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+                        sink.writeAll(body.source());
+                    }
+                }
+                try (BufferedSource source = Okio.buffer(Okio.source(temp))) {
+                    synchronized (this) {
+                        if (format == JobFileOptions.Format.xml) {
+                            if (!skipJoblistStart(source)) {
+                                //empty joblist
+                                return;
+                            }
+                            copy(source, joblistEnd);
+                        } else {
+                            copy(source, null);
+                        }
+                        out.flush();
+                    }
+                }
+            } finally {
+                if (!temp.delete()) {
+                    temp.deleteOnExit();
+                }
+            }
+        }
+
+        /**
+         * Skip the XML declaration and joblist start tag
+         *
+         * @return false if the joblist is empty
+         */
+        private boolean skipJoblistStart(final BufferedSource source) throws IOException {
+            long start = source.indexOf(joblistStart);
+            long gt = start < 0 ? -1 : source.indexOf((byte) '>', start);
+            if (gt < 0) {
+                return false;
+            }
+            boolean empty = source.getBuffer().getByte(gt - 1) == '/';
+            source.skip(gt + 1);
+            return !empty;
+        }
+
+        /**
+         * Copy the source to the output, holding back only the final bytes so that an end tag can be removed, and
+         * ending with a newline
+         *
+         * @param end end tag to remove from the final bytes, or null
+         */
+        private void copy(final BufferedSource source, final ByteString end) throws IOException {
+            Buffer buffer = source.getBuffer();
+            byte last = '\n';
+            while (source.request(TAIL_BYTES + COPY_BYTES)) {
+                long count = buffer.size() - TAIL_BYTES;
+                last = buffer.getByte(count - 1);
+                buffer.writeTo(out, count);
+                total += count;
+            }
+            ByteString tail = source.readByteString();
+            if (null != end) {
+                int index = tail.lastIndexOf(end);
+                if (index >= 0) {
+                    tail = tail.substring(0, index);
+                }
+            }
+            if (tail.size() > 0) {
+                last = tail.getByte(tail.size() - 1);
+            }
+            tail.write(out);
+            total += tail.size();
+            if (last != '\n') {
+                writeString("\n");
+            }
+        }
+
+        private synchronized void writeString(final String content) throws IOException {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            out.flush();
+            total += bytes.length;
+        }
+
+        /**
+         * Complete the document
+         *
+         * @return total bytes written
+         */
+        synchronized long finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                if (format == JobFileOptions.Format.xml) {
+                    writeString("</joblist>\n");
+                }
+            }
+            return total;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                finish();
+            } finally {
+                if (!stdout) {
+                    out.close();
+                }
+            }
+        }
+    }
+
     @CommandLine.Command(description = "Load Job definitions from a file in XML or YAML format.")
     public boolean load(
             @CommandLine.Mixin JobLoadOptions options,
@@ -286,7 +507,7 @@ public class Jobs extends BaseCommand {
     private void outputJobList(final JobOutputFormatOption options, final List<JobItem> body) {
         final Function<JobItem, ?> outformat;
         if (options.isVerbose()) {
-            getRdOutput().output(body.stream().map(JobItem::toMap).collect(Collectors.toList()));
+            getRdOutput().outputStream(body.stream().map(JobItem::toMap));
             return;
         }
         if (options.isOutputFormat()) {
@@ -295,7 +516,7 @@ public class Jobs extends BaseCommand {
             outformat = JobItem::toBasicString;
         }
 
-        getRdOutput().output(body.stream().map(outformat).collect(Collectors.toList()));
+        getRdOutput().outputStream(body.stream().map(outformat));
     }
 
 
@@ -365,7 +586,12 @@ public class Jobs extends BaseCommand {
         if (null == jobId) {
             return false;
         }
-        Simple simple = getRdTool().apiCall(api -> func.apply(api, jobId));
+        Simple simple = Run.jobApiCall(
+                options,
+                getRdTool(),
+                () -> getRdTool().projectOrEnv(options),
+                api -> func.apply(api, jobId)
+        );
         if (simple.isSuccess()) {
             getRdOutput().info(String.format(success, jobId));
         }
@@ -425,177 +651,164 @@ public class Jobs extends BaseCommand {
     }
 
 
-    @CommandLine.Command(description = "Enable execution for a set of jobs. " +
-            "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
-            "required.")
-    public boolean enablebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
-
+    /**
+     * Send a bulk toggle request for the selected jobs in batches, with the batch size, parallelism and retries
+     * from the options. The responses of all batches are merged.
+     *
+     * @param verb          action name used in prompts, e.g. "enable"
+     * @param gerund        action name used in messages, e.g. "enabling"
+     * @param successFormat message format for the number of jobs toggled
+     * @param failureFormat message format for the number of jobs which failed
+     * @param call          bulk request
+     * @param succeeded     succeeded items of a response
+     * @param failed        failed items of a response
+     * @param failedId      ID of a failed item
+     *
+     * @return true if all jobs succeeded
+     */
+    private <R, T> boolean bulkToggle(
+            final BulkJobActionOptions options,
+            final VerboseOption verboseOption,
+            final String verb,
+            final String gerund,
+            final String successFormat,
+            final String failureFormat,
+            final BiFunction<RundeckApi, IdList, Call<R>> call,
+            final Function<R, List<T>> succeeded,
+            final Function<R, List<T>> failed,
+            final Function<T, String> failedId
+    ) throws IOException, InputError
+    {
         List<String> ids = getJobList(options);
 
         if (!options.isConfirm()) {
             //request confirmation
             if (null == System.console()) {
                 getRdOutput().error("No user interaction available. Use --confirm to confirm request without user interaction");
-                getRdOutput().warning(String.format("Not enabling %d jobs", ids.size()));
+                getRdOutput().warning(String.format("Not %s %d jobs", gerund, ids.size()));
                 return false;
             }
-            String s = System.console().readLine("Really enable %d Jobs? (y/N) ", ids.size());
+            String s = System.console().readLine("Really " + verb + " %d Jobs? (y/N) ", ids.size());
 
             if (!"y".equals(s)) {
-                getRdOutput().warning(String.format("Not enabling %d jobs", ids.size()));
+                getRdOutput().warning(String.format("Not %s %d jobs", gerund, ids.size()));
                 return false;
             }
         }
 
-        final List<String> finalIds = ids;
-
-        BulkToggleJobExecutionResponse response = getRdTool().apiCall(api -> api.bulkEnableJobs(new IdList(finalIds)));
+        BulkExecutor.Result<T, T> response;
+        try (BulkExecutor<T, T> executor = new BulkExecutor<>(
+                options.isParallel() ? options.getParallel() : 1,
+                options.isRetry() ? options.getRetry() : 0,
+                failedId,
+                null
+        )) {
+            int batch = options.isBatchSize() ? options.getBatchSize() : Math.max(1, ids.size());
+            for (List<String> batchIds : BulkExecutor.chunks(ids, batch)) {
+                executor.submit(batchIds, finalIds -> {
+                    R result = getRdTool().apiCall(api -> call.apply(api, new IdList(finalIds)));
+                    return new BulkExecutor.Result<>(finalIds.size(), succeeded.apply(result), failed.apply(result));
+                });
+            }
+            response = executor.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
 
         if (response.isAllsuccessful()) {
-            getRdOutput().info(String.format("%d Jobs were enabled%n", response.getRequestCount()));
+            getRdOutput().info(String.format(successFormat, response.getRequested()));
             if (verboseOption.isVerbose()) {
                 getRdOutput().output(response.getSucceeded().stream()
-                        .map(BulkToggleJobExecutionResponse.Result::toString)
+                        .map(Object::toString)
                         .collect(Collectors.toList()));
             }
             return true;
         }
-        getRdOutput().error(String.format("Failed to enable %d Jobs%n", response.getFailed().size()));
+        getRdOutput().error(String.format(failureFormat, response.getFailedCount()));
         getRdOutput().output(response.getFailed().stream()
-                .map(BulkToggleJobExecutionResponse.Result::toString)
+                .map(Object::toString)
+                .collect(Collectors.toList()));
+        getRdOutput().output(response.getErrors().stream()
+                .map(BulkExecutor.ChunkError::toString)
                 .collect(Collectors.toList()));
         return false;
     }
 
 
-    @CommandLine.Command(description = "Disable execution for a set of jobs. " +
+    @CommandLine.Command(description = "Enable execution for a set of jobs. " +
             "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
-            "required.")
-    public boolean disablebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
-
-        List<String> ids = getJobList(options);
-
-        if (!options.isConfirm()) {
-            //request confirmation
-            if (null == System.console()) {
-                getRdOutput().error("No user interaction available. Use --confirm to confirm request without user interaction");
-                getRdOutput().warning(String.format("Not disabling %d jobs", ids.size()));
-                return false;
-            }
-            String s = System.console().readLine("Really disable %d Jobs? (y/N) ", ids.size());
-
-            if (!"y".equals(s)) {
-                getRdOutput().warning(String.format("Not disabling %d jobs", ids.size()));
-                return false;
-            }
-        }
-
-        final List<String> finalIds = ids;
+            "required. Use --batch to send the IDs in several requests.")
+    public boolean enablebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
+        return bulkToggle(
+                options,
+                verboseOption,
+                "enable",
+                "enabling",
+                "%d Jobs were enabled%n",
+                "Failed to enable %d Jobs%n",
+                RundeckApi::bulkEnableJobs,
+                BulkToggleJobExecutionResponse::getSucceeded,
+                BulkToggleJobExecutionResponse::getFailed,
+                BulkToggleJobExecutionResponse.Result::getId
+        );
+    }
 
-        BulkToggleJobExecutionResponse response = getRdTool().apiCall(api -> api.bulkDisableJobs(new IdList(finalIds)));
 
-        if (response.isAllsuccessful()) {
-            getRdOutput().info(String.format("%d Jobs were disabled%n", response.getRequestCount()));
-            if (verboseOption.isVerbose()) {
-                getRdOutput().output(response.getSucceeded().stream()
-                        .map(BulkToggleJobExecutionResponse.Result::toString)
-                        .collect(Collectors.toList()));
-            }
-            return true;
-        }
-        getRdOutput().error(String.format("Failed to disable %d Jobs%n", response.getFailed().size()));
-        getRdOutput().output(response.getFailed().stream()
-                .map(BulkToggleJobExecutionResponse.Result::toString)
-                .collect(Collectors.toList()));
-        return false;
+    @CommandLine.Command(description = "Disable execution for a set of jobs. " +
+            "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
+            "required. Use --batch to send the IDs in several requests.")
+    public boolean disablebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
+        return bulkToggle(
+                options,
+                verboseOption,
+                "disable",
+                "disabling",
+                "%d Jobs were disabled%n",
+                "Failed to disable %d Jobs%n",
+                RundeckApi::bulkDisableJobs,
+                BulkToggleJobExecutionResponse::getSucceeded,
+                BulkToggleJobExecutionResponse::getFailed,
+                BulkToggleJobExecutionResponse.Result::getId
+        );
     }
 
 
     @CommandLine.Command(description = "Enable schedule for a set of jobs. " +
             "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
-            "required.")
+            "required. Use --batch to send the IDs in several requests.")
     public boolean reschedulebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
-
-        List<String> ids = getJobList(options);
-
-        if (!options.isConfirm()) {
-            //request confirmation
-            if (null == System.console()) {
-                getRdOutput().error("No user interaction available. Use --confirm to confirm request without user interaction");
-                getRdOutput().warning(String.format("Not rescheduling %d jobs", ids.size()));
-                return false;
-            }
-            String s = System.console().readLine("Really reschedule %d Jobs? (y/N) ", ids.size());
-
-            if (!"y".equals(s)) {
-                getRdOutput().warning(String.format("Not rescheduling %d jobs", ids.size()));
-                return false;
-            }
-        }
-
-        final List<String> finalIds = ids;
-
-        BulkToggleJobScheduleResponse response = getRdTool().apiCall(api -> api.bulkEnableJobSchedule(new IdList(finalIds)));
-
-        if (response.isAllsuccessful()) {
-            getRdOutput().info(String.format("%d Jobs were rescheduled%n", response.getRequestCount()));
-            if (verboseOption.isVerbose()) {
-                getRdOutput().output(response.getSucceeded().stream()
-                        .map(BulkToggleJobScheduleResponse.Result::toString)
-                        .collect(Collectors.toList()));
-            }
-            return true;
-        }
-        getRdOutput().error(String.format("Failed to reschedule %d Jobs%n", response.getFailed().size()));
-        getRdOutput().output(response.getFailed().stream()
-                .map(BulkToggleJobScheduleResponse.Result::toString)
-                .collect(Collectors.toList()));
-        return false;
+        return bulkToggle(
+                options,
+                verboseOption,
+                "reschedule",
+                "rescheduling",
+                "%d Jobs were rescheduled%n",
+                "Failed to reschedule %d Jobs%n",
+                RundeckApi::bulkEnableJobSchedule,
+                BulkToggleJobScheduleResponse::getSucceeded,
+                BulkToggleJobScheduleResponse::getFailed,
+                BulkToggleJobScheduleResponse.Result::getId
+        );
     }
 
 
     @CommandLine.Command(description = "Disable schedule for a set of jobs. " +
             "--idlist/-i, or --job/-j or --group/-g or --jobxact/-J or --groupxact/-G Options are " +
-            "required.")
+            "required. Use --batch to send the IDs in several requests.")
     public boolean unschedulebulk(@CommandLine.Mixin BulkJobActionOptions options, @CommandLine.Mixin VerboseOption verboseOption) throws IOException, InputError {
-
-        List<String> ids = getJobList(options);
-
-        if (!options.isConfirm()) {
-            //request confirmation
-            if (null == System.console()) {
-                getRdOutput().error("No user interaction available. Use --confirm to confirm request without user interaction");
-                getRdOutput().warning(String.format("Not unscheduling %d jobs", ids.size()));
-                return false;
-            }
-            String s = System.console().readLine("Really unschedule %d Jobs? (y/N) ", ids.size());
-
-            if (!"y".equals(s)) {
-                getRdOutput().warning(String.format("Not unscheduling %d jobs", ids.size()));
-                return false;
-            }
-        }
-
-        final List<String> finalIds = ids;
-
-        BulkToggleJobScheduleResponse response = getRdTool().apiCall(api -> api.bulkDisableJobSchedule(new IdList(finalIds)));
-
-        if (response.isAllsuccessful()) {
-            getRdOutput().info(String.format("%d Jobs were unsheduled%n", response.getRequestCount()));
-            if (verboseOption.isVerbose()) {
-                getRdOutput().output(response.getSucceeded().stream()
-                        .map(BulkToggleJobScheduleResponse.Result::toString)
-                        .collect(Collectors.toList()));
-            }
-            return true;
-        }
-        getRdOutput().error(String.format("Failed to disable %d Jobs%n", response.getFailed().size()));
-        getRdOutput().output(response.getFailed().stream()
-                .map(BulkToggleJobScheduleResponse.Result::toString)
-                .collect(Collectors.toList()));
-        return false;
+        return bulkToggle(
+                options,
+                verboseOption,
+                "unschedule",
+                "unscheduling",
+                "%d Jobs were unsheduled%n",
+                "Failed to disable %d Jobs%n",
+                RundeckApi::bulkDisableJobSchedule,
+                BulkToggleJobScheduleResponse::getSucceeded,
+                BulkToggleJobScheduleResponse::getFailed,
+                BulkToggleJobScheduleResponse.Result::getId
+        );
     }
 
-
-
 }
@@ -29,7 +29,6 @@ import picocli.CommandLine;
 import java.io.IOException;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 
 /**
@@ -63,6 +62,6 @@ public class Nodes extends BaseCommand {
         } else {
             field = ProjectNode::getName;
         }
-        getRdOutput().output(body.values().stream().map(field).collect(Collectors.toList()));
+        getRdOutput().outputStream(body.values().stream().map(field));
     }
 }
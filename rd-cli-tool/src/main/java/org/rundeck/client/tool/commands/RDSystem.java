@@ -22,6 +22,7 @@ import org.rundeck.client.api.model.SystemInfo;
 import org.rundeck.client.tool.commands.system.ACLs;
 import org.rundeck.client.tool.commands.system.Mode;
 import org.rundeck.client.tool.extension.BaseCommand;
+import org.rundeck.client.tool.util.ApiVersionCache;
 import picocli.CommandLine;
 
 import java.io.IOException;
@@ -42,6 +43,15 @@ public class RDSystem extends BaseCommand {
     @CommandLine.Command(description = "Print system information and stats.")
     public void info() throws IOException, InputError {
         SystemInfo systemInfo = apiCall(RundeckApi::systemInfo);
+        Object apiversion = null != systemInfo.system.getRundeck() ? systemInfo.system.getRundeck().get("apiversion")
+                                                                   : null;
+        if (apiversion instanceof Number) {
+            ApiVersionCache.record(
+                    getRdTool().getAppConfig(),
+                    getRdTool().getClient().getAppBaseUrl(),
+                    ((Number) apiversion).intValue()
+            );
+        }
         getRdOutput().output(systemInfo.system.toMap());
     }
 }
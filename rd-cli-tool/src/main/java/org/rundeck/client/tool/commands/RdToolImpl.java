@@ -24,6 +24,7 @@ import org.rundeck.client.tool.RdApp;
 import org.rundeck.client.tool.extension.RdCommandExtension;
 import org.rundeck.client.tool.extension.RdOutput;
 import org.rundeck.client.tool.extension.RdTool;
+import org.rundeck.client.tool.util.ApiVersionCache;
 import org.rundeck.client.util.Client;
 import org.rundeck.client.util.ConfigSource;
 import org.rundeck.client.util.RdClientConfig;
@@ -111,6 +112,11 @@ public class RdToolImpl
                     downgrade.getRequestedVersion(),
                     downgrade.getSupportedVersion()
             );
+            ApiVersionCache.record(
+                    getAppConfig(),
+                    rdApp.getClient().getAppBaseUrl(),
+                    downgrade.getSupportedVersion()
+            );
             return rdApp.getClient(downgrade.getSupportedVersion()).apiCall(func);
         }
     }
@@ -129,6 +135,11 @@ public class RdToolImpl
                     downgrade.getRequestedVersion(),
                     downgrade.getSupportedVersion()
             );
+            ApiVersionCache.record(
+                    getAppConfig(),
+                    rdApp.getClient().getAppBaseUrl(),
+                    downgrade.getSupportedVersion()
+            );
             return rdApp.getClient(downgrade.getSupportedVersion()).apiWithErrorResponse(func);
         }
     }
@@ -129,7 +129,12 @@ public class Retry extends BaseCommand implements Callable<Boolean> {
         }
 
         request.setOptions(jobopts);
-        execution = apiCall(api -> api.retryJob(jobId, execId, request));
+        execution = Run.jobApiCall(
+                options,
+                getRdTool(),
+                () -> getRdTool().projectOrEnv(options),
+                api -> api.retryJob(jobId, execId, request)
+        );
 
         String started = "started";
         getRdOutput().info(String.format("Execution %s: %s%n", started, execution.toBasicString()));
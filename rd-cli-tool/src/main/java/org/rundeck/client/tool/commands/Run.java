@@ -16,6 +16,8 @@
 
 package org.rundeck.client.tool.commands;
 
+import org.rundeck.client.api.RequestFailed;
+import org.rundeck.client.api.RundeckApi;
 import org.rundeck.client.api.model.Execution;
 import org.rundeck.client.api.model.JobFileUploadResult;
 import org.rundeck.client.api.model.JobItem;
@@ -26,15 +28,18 @@ import org.rundeck.client.tool.commands.jobs.Files;
 import org.rundeck.client.tool.extension.BaseCommand;
 import org.rundeck.client.tool.extension.RdTool;
 import org.rundeck.client.tool.options.*;
+import org.rundeck.client.tool.util.JobIdCache;
 import org.rundeck.client.util.Format;
 import org.rundeck.client.util.Quoting;
 import picocli.CommandLine;
+import retrofit2.Call;
 
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -175,9 +180,11 @@ public class Run extends BaseCommand implements Callable<Integer> {
                         Format.date(runat, "yyyy-MM-dd'T'HH:mm:ssXX")
                 ));
             }
-            execution = apiCall(api -> api.runJob(jobId, request));
+            execution = jobApiCall(options, getRdTool(), () -> getRdTool().projectOrEnv(options),
+                                   api -> api.runJob(jobId, request)
+            );
         } else {
-            execution = apiCall(api -> api.runJob(
+            execution = jobApiCall(options, getRdTool(), () -> getRdTool().projectOrEnv(options), api -> api.runJob(
                     jobId,
                     Quoting.joinStringQuoted(options.getCommandString()),
                     loglevel,
@@ -240,6 +247,15 @@ public class Run extends BaseCommand implements Callable<Integer> {
         String proj = project.get();
         String job = options.getJob();
         String[] parts = Jobs.splitJobNameParts(job);
+        String cacheKey = JobIdCache.key(parts[0], parts[1]);
+        JobIdCache cache = JobIdCache.forProject(rdTool, proj);
+        if (null != cache) {
+            String cached = cache.get(cacheKey);
+            if (null != cached) {
+                out.info(String.format("Found cached job: %s %s%n", cached, cacheKey));
+                return cached;
+            }
+        }
         List<JobItem> jobItems = rdTool.apiCallDowngradable(api -> api.listJobs(
                 proj,
                 null,
@@ -263,10 +279,63 @@ public class Run extends BaseCommand implements Callable<Integer> {
         } else {
             JobItem jobItem = jobItems.get(0);
             out.info(String.format("Found matching job: %s%n", jobItem.toBasicString()));
+            if (null != cache) {
+                try {
+                    cache.put(cacheKey, jobItem.getId());
+                } catch (IOException e) {
+                    cacheError(rdTool, e);
+                }
+            }
             return jobItem.getId();
         }
     }
 
+    /**
+     * Perform an API call for the job identified by the options. If the job was specified by name and the server
+     * responds with 404, any cached ID for that name is removed so the next lookup queries the server.
+     *
+     * @param options ident options
+     * @param rdTool  rdTool
+     * @param project project name
+     * @param func    api call
+     *
+     * @return result
+     */
+    public static <T> T jobApiCall(
+            final JobIdentOptions options,
+            final RdTool rdTool,
+            final GetInput<String> project,
+            final Function<RundeckApi, Call<T>> func
+    )
+            throws InputError, IOException
+    {
+        try {
+            return rdTool.apiCall(func);
+        } catch (RequestFailed e) {
+            if (e.getStatusCode() == 404 && !options.isId() && options.isJob()) {
+                JobIdCache cache = JobIdCache.forProject(rdTool, project.get());
+                if (null != cache) {
+                    String[] parts = Jobs.splitJobNameParts(options.getJob());
+                    try {
+                        cache.remove(JobIdCache.key(parts[0], parts[1]));
+                    } catch (IOException ioe) {
+                        cacheError(rdTool, ioe);
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The job ID cache is only an optimization, errors are reported at debug level
+     */
+    private static void cacheError(final RdTool rdTool, final IOException e) {
+        if (rdTool.getAppConfig().getDebugLevel() > 0) {
+            rdTool.getRdApp().getOutput().warning("# Job ID cache error: " + e.getMessage());
+        }
+    }
+
     private Date parseDelayTime(final String delayString) {
         long delayms = System.currentTimeMillis();
         Pattern p = Pattern.compile("(?<digits>\\d+)(?<unit>[smhdwMY])\\s*");
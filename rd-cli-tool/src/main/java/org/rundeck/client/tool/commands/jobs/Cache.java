@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.commands.jobs;
+
+import org.rundeck.client.api.model.JobItem;
+import org.rundeck.client.tool.InputError;
+import org.rundeck.client.tool.extension.BaseCommand;
+import org.rundeck.client.tool.options.ProjectNameOptions;
+import org.rundeck.client.tool.util.JobIdCache;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Manage the local job name to ID cache
+ */
+@CommandLine.Command(description = "Manage the local cache of Job names to IDs used when specifying a Job by name. " +
+        "The cache is enabled by setting " + JobIdCache.RD_JOB_CACHE_TTL + " to the number of seconds to keep " +
+        "entries.", name = "cache")
+public class Cache extends BaseCommand {
+
+    @CommandLine.Command(description = "Load all Job names and IDs for a project into the cache.")
+    public void refresh(@CommandLine.Mixin ProjectNameOptions options) throws IOException, InputError {
+        String project = getRdTool().projectOrEnv(options);
+        JobIdCache cache = requireCache(project);
+        List<JobItem> jobs = apiCall(api -> api.listJobs(project, null, null, null, null));
+        int count = cache.replaceAll(jobs);
+        getRdOutput().info(String.format("Cached %d Job IDs for project %s", count, project));
+    }
+
+    @CommandLine.Command(description = "Remove all cached Job IDs for a project.")
+    public void clear(@CommandLine.Mixin ProjectNameOptions options) throws IOException, InputError {
+        String project = getRdTool().projectOrEnv(options);
+        requireCache(project).clear();
+        getRdOutput().info(String.format("Cleared cached Job IDs for project %s", project));
+    }
+
+    private JobIdCache requireCache(final String project) throws InputError {
+        JobIdCache cache = JobIdCache.forProject(getRdTool(), project);
+        if (null == cache) {
+            throw new InputError("The Job ID cache is not enabled, set " + JobIdCache.RD_JOB_CACHE_TTL +
+                                 " to the number of seconds to keep entries");
+        }
+        return cache;
+    }
+}
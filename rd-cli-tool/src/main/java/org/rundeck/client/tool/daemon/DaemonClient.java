@@ -0,0 +1,270 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.daemon;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.rundeck.client.tool.daemon.DaemonProtocol.*;
+
+/**
+ * Launcher side of the daemon: forwards the arguments, RD_ environment, stdin and stdout/stderr of an invocation to
+ * a running daemon, and returns its exit code. The daemon must prove it holds the token before anything is sent. Only uses JDK classes, so that forwarding does not pay for loading the
+ * rest of the tool.
+ */
+public class DaemonClient {
+    private DaemonClient() {
+    }
+
+    /**
+     * Forward an invocation to the daemon if {@link DaemonState#RD_DAEMON} is enabled and a daemon is running.
+     * Invocations with a console, or of the daemon command itself, are not forwarded.
+     *
+     * @param args arguments
+     *
+     * @return exit code, or null if the invocation was not forwarded and should run in this process
+     */
+    public static Integer forward(final String[] args) {
+        if (!"true".equalsIgnoreCase(System.getenv(DaemonState.RD_DAEMON))) {
+            return null;
+        }
+        if (args.length > 0 && "daemon".equals(args[0]) || null != System.console()) {
+            return null;
+        }
+        DaemonState state = DaemonState.load(DaemonState.file(System.getenv(DaemonState.RD_DAEMON_FILE)));
+        if (null == state) {
+            return null;
+        }
+        Socket socket;
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), state.getPort());
+        } catch (IOException e) {
+            //not running
+            return null;
+        }
+        try (Socket ignored = socket) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            try {
+                if (!handshake(in, out, state, RUN)) {
+                    return null;
+                }
+            } catch (DaemonAuthException e) {
+                System.err.println("# rd daemon: not forwarding: " + e.getMessage());
+                return null;
+            } catch (IOException e) {
+                //nothing has been sent yet, e.g. the state file is stale and another process uses the port
+                debug("not forwarding: " + e.getMessage());
+                return null;
+            }
+            writeString(out, new File("").getAbsolutePath());
+            writeStrings(out, Arrays.asList(args));
+            writeMap(out, forwardedEnv(System.getenv()));
+            out.flush();
+
+            if (!readAccept(in)) {
+                return null;
+            }
+            //stdin is only consumed once the daemon has accepted the invocation
+            Thread stdin = new Thread(() -> pumpStdin(out), "rd-daemon-stdin");
+            stdin.setDaemon(true);
+            stdin.start();
+
+            return readResponse(in);
+        } catch (IOException e) {
+            System.err.println("rd daemon: connection failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * @param state daemon state
+     *
+     * @return true if the daemon is listening
+     */
+    public static boolean isRunning(final DaemonState state) {
+        try (Socket ignored = new Socket(InetAddress.getLoopbackAddress(), state.getPort())) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Send a control request to the daemon
+     *
+     * @param state   daemon state
+     * @param request request name
+     *
+     * @return exit code, or null if rejected
+     *
+     * @throws IOException if the daemon cannot be reached
+     */
+    private static Integer request(final DaemonState state, final String request) throws IOException {
+        if (RUN.equals(request)) {
+            throw new IllegalArgumentException(request);
+        }
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), state.getPort())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            if (!handshake(in, out, state, request)) {
+                return null;
+            }
+            out.flush();
+            return readAccept(in) ? readResponse(in) : null;
+        }
+    }
+
+    public static Integer status(final DaemonState state) throws IOException {
+        return request(state, STATUS);
+    }
+
+    public static Integer stop(final DaemonState state) throws IOException {
+        return request(state, STOP);
+    }
+
+    /**
+     * Verify that the daemon holds the token, then prove it holds the token and send the request. Nothing else is
+     * sent before the daemon's proof is verified.
+     *
+     * @return true if the request was sent, false if the daemon rejected the protocol version
+     *
+     * @throws DaemonAuthException if the daemon could not prove that it holds the token
+     * @throws IOException         if the connection fails
+     */
+    private static boolean handshake(
+            final DataInputStream in,
+            final DataOutputStream out,
+            final DaemonState state,
+            final String request
+    ) throws IOException
+    {
+        String nonce = randomHex();
+        writeString(out, VERSION);
+        writeString(out, nonce);
+        out.flush();
+        byte type = in.readByte();
+        byte[] message = readFrameData(in);
+        if (type == REJECT) {
+            debug(new String(message, StandardCharsets.UTF_8));
+            return false;
+        }
+        if (type != CHALLENGE) {
+            throw new IOException("Unexpected frame: " + type);
+        }
+        String challenge = new String(message, StandardCharsets.UTF_8);
+        int sep = challenge.indexOf(':');
+        String serverNonce = sep > 0 ? challenge.substring(0, sep) : "";
+        if (sep < 0 || !verify(
+                proof(state.getToken(), SERVER_PROOF, nonce, serverNonce),
+                challenge.substring(sep + 1)
+        )) {
+            throw new DaemonAuthException(String.format(
+                    "process on port %d does not have the daemon token",
+                    state.getPort()
+            ));
+        }
+        writeString(out, proof(state.getToken(), CLIENT_PROOF, serverNonce, nonce));
+        writeString(out, request);
+        return true;
+    }
+
+    /**
+     * @return true if accepted, false if rejected
+     */
+    private static boolean readAccept(final DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        byte[] message = readFrameData(in);
+        if (type == ACCEPT) {
+            return true;
+        }
+        if (type != REJECT) {
+            throw new IOException("Unexpected frame: " + type);
+        }
+        debug(new String(message, StandardCharsets.UTF_8));
+        return false;
+    }
+
+    private static byte[] readFrameData(final DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > 64 * 1024) {
+            throw new IOException("Invalid frame length: " + len);
+        }
+        byte[] message = new byte[len];
+        in.readFully(message);
+        return message;
+    }
+
+    private static void debug(final String message) {
+        String debug = System.getenv("RD_DEBUG");
+        if (null != debug && !"".equals(debug) && !"0".equals(debug)) {
+            System.err.println("# rd daemon: " + message);
+        }
+    }
+
+    private static int readResponse(final DataInputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (true) {
+            byte type = in.readByte();
+            int len = in.readInt();
+            if (type == EXIT) {
+                System.out.flush();
+                System.err.flush();
+                return in.readInt();
+            }
+            if (len < 0 || type != STDOUT && type != STDERR) {
+                throw new IOException("Unexpected frame: " + type);
+            }
+            PrintStream target = type == STDERR ? System.err : System.out;
+            while (len > 0) {
+                int read = in.read(buffer, 0, Math.min(len, buffer.length));
+                if (read < 0) {
+                    throw new EOFException();
+                }
+                target.write(buffer, 0, read);
+                len -= read;
+            }
+            target.flush();
+        }
+    }
+
+    private static void pumpStdin(final DataOutputStream out) {
+        byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = System.in.read(buffer)) > 0) {
+                writeFrame(out, STDIN, buffer, 0, read);
+            }
+            writeFrame(out, STDIN, buffer, 0, 0);
+        } catch (IOException ignored) {
+            //daemon finished without reading all input
+        }
+    }
+
+    /**
+     * The daemon could not prove that it holds the token
+     */
+    static class DaemonAuthException
+            extends IOException
+    {
+        DaemonAuthException(final String message) {
+            super(message);
+        }
+    }
+}
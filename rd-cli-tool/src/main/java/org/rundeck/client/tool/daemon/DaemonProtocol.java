@@ -0,0 +1,314 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.daemon;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wire format between launcher and daemon. Strings are length-prefixed UTF-8, and a frame is a type byte, an int
+ * length, and that many bytes.
+ * <p>
+ * The token is never sent, each side proves it holds the token before the launcher sends anything else: the
+ * launcher sends the version and a random nonce, the daemon replies with a challenge frame of its own nonce and an
+ * HMAC of both nonces keyed by the token, and the launcher verifies it and sends its own HMAC of the nonces. The
+ * launcher then sends the request, and for a "run" request the working directory, arguments and forwarded
+ * environment. The daemon replies with an accept or reject frame. Once accepted, the launcher sends stdin as frames,
+ * and the daemon sends stdout/stderr frames followed by an exit frame.
+ */
+final class DaemonProtocol {
+    static final String VERSION = "rd-daemon/2";
+    static final String RUN = "run";
+    static final String STATUS = "status";
+    static final String STOP = "stop";
+
+    static final byte STDIN = 0;
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+    static final byte REJECT = 4;
+    static final byte ACCEPT = 5;
+    static final byte CHALLENGE = 6;
+
+    static final String SERVER_PROOF = "server";
+    static final String CLIENT_PROOF = "client";
+
+    /**
+     * Environment variables read by the tool in addition to the RD_ prefixed ones, e.g. Main.TRACEPARENT
+     */
+    static final List<String> FORWARDED_ENV = Collections.unmodifiableList(Arrays.asList("TERM", "TRACEPARENT"));
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * @return random hex string, used as a token or nonce
+     */
+    static String randomHex() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return hex(bytes);
+    }
+
+    private static String hex(final byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param token  daemon token
+     * @param label  {@link #SERVER_PROOF} or {@link #CLIENT_PROOF}, so a proof cannot be reflected back
+     * @param first  nonce of the verifying side
+     * @param second nonce of the proving side
+     *
+     * @return HMAC-SHA256 of the label and nonces keyed by the token
+     */
+    static String proof(final String token, final String label, final String first, final String second) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(token.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return hex(mac.doFinal((label + "\n" + first + "\n" + second).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return true if the proof matches, compared in constant time
+     */
+    static boolean verify(final String expected, final String proof) {
+        return MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                proof.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * @param env environment
+     *
+     * @return the RD_ prefixed variables and {@link #FORWARDED_ENV}, which are the values config reads
+     */
+    static Map<String, String> forwardedEnv(final Map<String, String> env) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : env.entrySet()) {
+            if (entry.getKey().startsWith("RD_") || FORWARDED_ENV.contains(entry.getKey())) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
+    }
+
+    static void writeString(final DataOutputStream out, final String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(final DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0 || len > 10 * 1024 * 1024) {
+            throw new IOException("Invalid string length: " + len);
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeStrings(final DataOutputStream out, final List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static List<String> readStrings(final DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    static void writeMap(final DataOutputStream out, final Map<String, String> values) throws IOException {
+        out.writeInt(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    static Map<String, String> readMap(final DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            values.put(readString(in), readString(in));
+        }
+        return values;
+    }
+
+    static void writeFrame(final DataOutputStream out, final byte type, final byte[] data, final int off, final int len)
+            throws IOException
+    {
+        synchronized (out) {
+            out.writeByte(type);
+            out.writeInt(len);
+            out.write(data, off, len);
+            out.flush();
+        }
+    }
+
+    static void writeExit(final DataOutputStream out, final int code) throws IOException {
+        synchronized (out) {
+            out.writeByte(EXIT);
+            out.writeInt(4);
+            out.writeInt(code);
+            out.flush();
+        }
+    }
+
+    static void writeAccept(final DataOutputStream out) throws IOException {
+        writeFrame(out, ACCEPT, new byte[0], 0, 0);
+    }
+
+    static void writeChallenge(final DataOutputStream out, final String nonce, final String proof)
+            throws IOException
+    {
+        byte[] bytes = (nonce + ":" + proof).getBytes(StandardCharsets.UTF_8);
+        writeFrame(out, CHALLENGE, bytes, 0, bytes.length);
+    }
+
+    static void writeReject(final DataOutputStream out, final String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        writeFrame(out, REJECT, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes data as frames of a type, buffered until flushed
+     */
+    static class FrameOutputStream
+            extends OutputStream
+    {
+        private final DataOutputStream out;
+        private final byte type;
+        private final byte[] buffer = new byte[8192];
+        private int count;
+
+        FrameOutputStream(final DataOutputStream out, final byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public synchronized void write(final int b) throws IOException {
+            if (count == buffer.length) {
+                flush();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len > buffer.length - count) {
+                flush();
+            }
+            if (len >= buffer.length) {
+                writeFrame(out, type, b, off, len);
+                return;
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (count > 0) {
+                writeFrame(out, type, buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+
+    /**
+     * Reads the data of stdin frames, an empty frame marks the end of input
+     */
+    static class FrameInputStream
+            extends InputStream
+    {
+        private final DataInputStream in;
+        private int remaining;
+        private boolean eof;
+
+        FrameInputStream(final DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (remaining == 0) {
+                if (eof) {
+                    return -1;
+                }
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    eof = true;
+                    return -1;
+                }
+                int size = in.readInt();
+                if (type != STDIN || size < 0) {
+                    throw new IOException("Unexpected frame: " + type);
+                }
+                remaining = size;
+                eof = size == 0;
+            }
+            int read = in.read(b, off, Math.min(len, remaining));
+            if (read < 0) {
+                eof = true;
+                remaining = 0;
+                return -1;
+            }
+            remaining -= read;
+            return read;
+        }
+    }
+}
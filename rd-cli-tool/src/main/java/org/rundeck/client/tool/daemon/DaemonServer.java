@@ -0,0 +1,343 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.daemon;
+
+import okhttp3.ConnectionPool;
+import org.rundeck.client.tool.Main;
+import org.rundeck.client.util.ConfigValues;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.rundeck.client.tool.daemon.DaemonProtocol.*;
+
+/**
+ * Resident process which runs forwarded invocations with a shared HTTP connection pool. Listens on a loopback port,
+ * and requires proof of the access token from the state file, see {@link DaemonProtocol}. System.out, System.err and System.in are routed to the
+ * invocation running on the current thread (or a thread it started), so that several invocations can run at once.
+ * Invocations are only accepted from the working directory of the daemon, so that relative paths resolve the same.
+ */
+public class DaemonServer
+        implements Closeable
+{
+    private static final InheritableThreadLocal<Invocation> CURRENT = new InheritableThreadLocal<>();
+    private static final String PICOCLI_ANSI = "picocli.ansi";
+
+    private final File stateFile;
+    private final int threads;
+    private final long idleMillis;
+    private final PrintStream log;
+    private final ConnectionPool connectionPool = new ConnectionPool(10, 5, TimeUnit.MINUTES);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicLong lastActivity = new AtomicLong(System.currentTimeMillis());
+    private final long started = System.currentTimeMillis();
+    private volatile boolean stopped;
+    private ServerSocket serverSocket;
+    private DaemonState state;
+    private PrintStream systemOut;
+    private PrintStream systemErr;
+    private String systemAnsi;
+    private InputStream systemIn;
+
+    /**
+     * @param stateFile  state file to write
+     * @param threads    max concurrent invocations
+     * @param idleMillis stop after no invocations for this long, or 0 to keep running
+     * @param log        daemon log output
+     */
+    public DaemonServer(final File stateFile, final int threads, final long idleMillis, final PrintStream log) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.stateFile = stateFile;
+        this.threads = threads;
+        this.idleMillis = idleMillis;
+        this.log = log;
+    }
+
+    /**
+     * Accept invocations until stopped
+     *
+     * @throws IOException if the server cannot be started
+     */
+    public void serve() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverSocket.setSoTimeout(1000);
+        String dir = new File("").getAbsolutePath();
+        state = DaemonState.create(serverSocket.getLocalPort(), dir, pid());
+        state.save(stateFile);
+        log.printf("rd daemon listening on port %d for %s (pid %s)%n", state.getPort(), dir, state.getPid());
+
+        installStreams();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "rd-daemon-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (!stopped) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketTimeoutException e) {
+                    if (idleMillis > 0 && active.get() == 0
+                        && System.currentTimeMillis() - lastActivity.get() > idleMillis) {
+                        log.println("rd daemon idle, stopping");
+                        break;
+                    }
+                    continue;
+                }
+                active.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        handle(socket);
+                    } finally {
+                        lastActivity.set(System.currentTimeMillis());
+                        active.decrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            close();
+        }
+    }
+
+    private void handle(final Socket socket) {
+        try (Socket ignored = socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            String version = readString(in);
+            if (!VERSION.equals(version)) {
+                writeReject(out, "unsupported protocol: " + version);
+                return;
+            }
+            String clientNonce = readString(in);
+            String serverNonce = randomHex();
+            writeChallenge(out, serverNonce, proof(state.getToken(), SERVER_PROOF, clientNonce, serverNonce));
+            String clientProof = readString(in);
+            if (!verify(proof(state.getToken(), CLIENT_PROOF, serverNonce, clientNonce), clientProof)) {
+                writeReject(out, "invalid token");
+                return;
+            }
+            String request = readString(in);
+            if (STOP.equals(request)) {
+                stopped = true;
+                writeAccept(out);
+                writeExit(out, 0);
+            } else if (STATUS.equals(request)) {
+                writeAccept(out);
+                byte[] status = String.format(
+                        "pid: %s%ndir: %s%nport: %d%nuptime: %ds%nactive: %d%nserved: %d%n",
+                        state.getPid(),
+                        state.getDir(),
+                        state.getPort(),
+                        (System.currentTimeMillis() - started) / 1000,
+                        active.get() - 1,
+                        served.get()
+                ).getBytes(StandardCharsets.UTF_8);
+                writeFrame(out, STDOUT, status, 0, status.length);
+                writeExit(out, 0);
+            } else if (RUN.equals(request)) {
+                run(in, out);
+            } else {
+                writeReject(out, "unknown request: " + request);
+            }
+        } catch (EOFException e) {
+            //connection closed, e.g. a liveness check
+        } catch (IOException e) {
+            log.println("rd daemon: request failed: " + e);
+        }
+    }
+
+    private void run(final DataInputStream in, final DataOutputStream out) throws IOException {
+        String dir = readString(in);
+        List<String> args = readStrings(in);
+        Map<String, String> env = readMap(in);
+        if (!state.getDir().equals(dir)) {
+            writeReject(out, "working directory differs from daemon: " + state.getDir());
+            return;
+        }
+        writeAccept(out);
+        served.incrementAndGet();
+
+        Invocation invocation = new Invocation(
+                new PrintStream(new FrameOutputStream(out, STDOUT), true),
+                new PrintStream(new FrameOutputStream(out, STDERR), true),
+                new FrameInputStream(in)
+        );
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        CURRENT.set(invocation);
+        int code;
+        try {
+            code = Main.run(args.toArray(new String[0]), envValues(env), connectionPool);
+        } catch (RuntimeException | Error e) {
+            e.printStackTrace(invocation.err);
+            code = 1;
+        } finally {
+            invocation.out.flush();
+            invocation.err.flush();
+            CURRENT.remove();
+            Thread.currentThread().setContextClassLoader(loader);
+        }
+        writeExit(out, code);
+    }
+
+    /**
+     * Looks up values in the forwarded environment in the same way as {@link org.rundeck.client.util.Env}
+     */
+    static ConfigValues envValues(final Map<String, String> env) {
+        return key -> env.get(key.toUpperCase().replaceAll("\\.", "_"));
+    }
+
+    private void installStreams() {
+        systemOut = System.out;
+        systemErr = System.err;
+        systemIn = System.in;
+        System.setOut(new PrintStream(new RoutedOutputStream(i -> i.out, systemOut), true));
+        System.setErr(new PrintStream(new RoutedOutputStream(i -> i.err, systemErr), true));
+        System.setIn(new RoutedInputStream(systemIn));
+        //forwarded invocations never have a console, so picocli must not detect ANSI support from the daemon's
+        systemAnsi = System.getProperty(PICOCLI_ANSI);
+        System.setProperty(PICOCLI_ANSI, "false");
+    }
+
+    private void restoreStreams() {
+        if (null != systemOut) {
+            System.setOut(systemOut);
+            System.setErr(systemErr);
+            System.setIn(systemIn);
+            if (null != systemAnsi) {
+                System.setProperty(PICOCLI_ANSI, systemAnsi);
+            } else {
+                System.clearProperty(PICOCLI_ANSI);
+            }
+            systemOut = null;
+        }
+    }
+
+    private static String pid() {
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        int at = name.indexOf('@');
+        return at > 0 ? name.substring(0, at) : name;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        if (null != serverSocket) {
+            serverSocket.close();
+        }
+        if (null != state) {
+            //remove the state file unless another daemon has replaced it
+            DaemonState current = DaemonState.load(stateFile);
+            if (null != current && state.getToken().equals(current.getToken())) {
+                stateFile.delete();
+            }
+        }
+        restoreStreams();
+        connectionPool.evictAll();
+    }
+
+    private static class Invocation {
+        final PrintStream out;
+        final PrintStream err;
+        final InputStream in;
+
+        Invocation(final PrintStream out, final PrintStream err, final InputStream in) {
+            this.out = out;
+            this.err = err;
+            this.in = in;
+        }
+    }
+
+    private static class RoutedOutputStream
+            extends OutputStream
+    {
+        private final Function<Invocation, OutputStream> select;
+        private final OutputStream fallback;
+
+        RoutedOutputStream(final Function<Invocation, OutputStream> select, final OutputStream fallback) {
+            this.select = select;
+            this.fallback = fallback;
+        }
+
+        private OutputStream target() {
+            Invocation invocation = CURRENT.get();
+            return null != invocation ? select.apply(invocation) : fallback;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+
+    private static class RoutedInputStream
+            extends InputStream
+    {
+        private final InputStream fallback;
+
+        RoutedInputStream(final InputStream fallback) {
+            this.fallback = fallback;
+        }
+
+        private InputStream target() {
+            Invocation invocation = CURRENT.get();
+            return null != invocation ? invocation.in : fallback;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return target().read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return target().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return target().available();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+
+/**
+ * Address and access token of a running daemon, stored in a file readable only by the user
+ */
+public class DaemonState {
+    /**
+     * If true, forward invocations to a running daemon
+     */
+    public static final String RD_DAEMON = "RD_DAEMON";
+    /**
+     * Daemon state file, default: ~/.rd/daemon.properties
+     */
+    public static final String RD_DAEMON_FILE = "RD_DAEMON_FILE";
+
+    private final int port;
+    private final String token;
+    private final String dir;
+    private final String pid;
+
+    public DaemonState(final int port, final String token, final String dir, final String pid) {
+        this.port = port;
+        this.token = token;
+        this.dir = dir;
+        this.pid = pid;
+    }
+
+    /**
+     * @param port listening port
+     * @param dir  working directory
+     * @param pid  process ID
+     *
+     * @return new state with a random access token
+     */
+    static DaemonState create(final int port, final String dir, final String pid) {
+        return new DaemonState(port, DaemonProtocol.randomHex(), dir, pid);
+    }
+
+    /**
+     * @param configured configured path, or null
+     *
+     * @return state file
+     */
+    public static File file(final String configured) {
+        if (null != configured) {
+            return new File(configured);
+        }
+        return new File(new File(System.getProperty("user.home"), ".rd"), "daemon.properties");
+    }
+
+    /**
+     * @param file state file
+     *
+     * @return state, or null if the file does not exist or is invalid
+     */
+    public static DaemonState load(final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            props.load(in);
+            return new DaemonState(
+                    Integer.parseInt(props.getProperty("port")),
+                    props.getProperty("token"),
+                    props.getProperty("dir"),
+                    props.getProperty("pid")
+            );
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write the state, readable only by the owner
+     *
+     * @param file state file
+     */
+    void save(final File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        File temp = new File(parent, file.getName() + ".tmp");
+        Files.deleteIfExists(temp.toPath());
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(
+                    temp.toPath(),
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))
+            );
+        }
+        Properties props = new Properties();
+        props.setProperty("port", Integer.toString(port));
+        props.setProperty("token", token);
+        props.setProperty("dir", dir);
+        props.setProperty("pid", pid);
+        try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+            props.store(out, "rd daemon");
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getDir() {
+        return dir;
+    }
+
+    public String getPid() {
+        return pid;
+    }
+}
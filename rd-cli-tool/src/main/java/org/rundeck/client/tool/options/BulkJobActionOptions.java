@@ -10,4 +10,25 @@ public class BulkJobActionOptions extends JobListOptions {
   @CommandLine.Option(names={"--confirm","-y"}, description = "Force confirmation of request.")
   boolean confirm;
 
+  @CommandLine.Option(names = {"--batch", "-b"}, description = "Batch size if there are many IDs")
+  Integer batchSize;
+
+  public boolean isBatchSize() {
+    return batchSize != null && batchSize > 0;
+  }
+
+  @CommandLine.Option(names = {"--parallel"}, description = "Number of batches to send concurrently. Default: 1")
+  Integer parallel;
+
+  public boolean isParallel() {
+    return parallel != null && parallel > 0;
+  }
+
+  @CommandLine.Option(names = {"--retry"}, description = "Number of times to retry jobs which failed in a batch. Default: 0")
+  Integer retry;
+
+  public boolean isRetry() {
+    return retry != null && retry > 0;
+  }
+
 }
@@ -20,11 +20,25 @@ import lombok.Getter;
 import lombok.Setter;
 import picocli.CommandLine;
 
+import java.util.List;
+
 @Getter @Setter
 public class ExecutionsFollowOptions extends FollowOptions {
 
-    @CommandLine.Option(names = {"-e", "--eid"}, description = "Execution ID", required = true)
-    String id;
+    @CommandLine.Option(names = {"-e", "--eid"},
+            arity = "1..*",
+            description = "Execution ID, or multiple IDs to follow concurrently. If not specified, follow executions "
+                          + "matching the query options.")
+    List<String> ids;
+
+    public boolean isIds() {
+        return ids != null && ids.size() > 0;
+    }
+
+    @CommandLine.Option(names = {"--threads"},
+            defaultValue = "4",
+            description = "Number of threads shared to follow multiple executions, default: 4")
+    int threads;
 
     @CommandLine.Option(names = {"-%", "--outformat"},
             description = "Output format specifier for execution logs. You can use \"%%key\" where key is one of:" +
@@ -38,4 +38,15 @@ public class FollowOptions extends RunOptions {
             description = "Number of lines to tail from the end, default: 1")
     long tail;
 
+    @CommandLine.Option(names = {"--poll-min"},
+            defaultValue = "500",
+            description = "Minimum milliseconds to wait between output requests while following, default: 500")
+    long pollMin;
+
+    @CommandLine.Option(names = {"--poll-max"},
+            defaultValue = "5000",
+            description = "Maximum milliseconds to wait between output requests while no new output is available, "
+                          + "default: 5000")
+    long pollMax;
+
 }
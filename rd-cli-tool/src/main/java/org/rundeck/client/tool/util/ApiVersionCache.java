@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.util.RdClientConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Local cache of the API version supported by each Rundeck URL, stored as a properties file in the cache directory, so
+ * that later runs against an older server can request the supported version without a failed request and a
+ * downgrade. Entries older than the TTL are ignored. The cache is only used if {@link #RD_API_VERSION_CACHE_TTL} is
+ * set.
+ */
+public class ApiVersionCache {
+    /**
+     * Time to live for cached API versions, in seconds
+     */
+    public static final String RD_API_VERSION_CACHE_TTL = "RD_API_VERSION_CACHE_TTL";
+    static final String FILE_NAME = "apiversions.properties";
+
+    private final File file;
+    private final long ttlMillis;
+
+    /**
+     * @param file      cache file
+     * @param ttlMillis time to live for entries
+     */
+    public ApiVersionCache(final File file, final long ttlMillis) {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @param config config
+     *
+     * @return cache, or null if the cache is not enabled
+     */
+    public static ApiVersionCache forConfig(final RdClientConfig config) {
+        Long ttl = config.getLong(RD_API_VERSION_CACHE_TTL, null);
+        if (null == ttl || ttl < 1) {
+            return null;
+        }
+        return new ApiVersionCache(new File(JobIdCache.cacheDir(config), FILE_NAME), ttl * 1000);
+    }
+
+    /**
+     * @param baseUrl Rundeck base URL without an API version
+     *
+     * @return cache key
+     */
+    static String key(final String baseUrl) {
+        String key = baseUrl.trim();
+        while (key.endsWith("/")) {
+            key = key.substring(0, key.length() - 1);
+        }
+        return key;
+    }
+
+    /**
+     * @param baseUrl Rundeck base URL without an API version
+     *
+     * @return cached API version, or null if not cached or expired
+     */
+    public Integer get(final String baseUrl) {
+        String value = load().getProperty(key(baseUrl));
+        if (null == value) {
+            return null;
+        }
+        int i = value.indexOf(' ');
+        if (i < 1) {
+            return null;
+        }
+        try {
+            long time = Long.parseLong(value.substring(0, i));
+            if (System.currentTimeMillis() - time > ttlMillis) {
+                return null;
+            }
+            return Integer.valueOf(value.substring(i + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Store the API version for a URL
+     *
+     * @param baseUrl Rundeck base URL without an API version
+     * @param version supported API version
+     */
+    public void put(final String baseUrl, final int version) throws IOException {
+        Properties props = load();
+        props.setProperty(key(baseUrl), System.currentTimeMillis() + " " + version);
+        store(props);
+    }
+
+    /**
+     * Store the API version for a URL, ignoring errors
+     *
+     * @param config  config
+     * @param baseUrl Rundeck base URL without an API version
+     * @param version supported API version
+     */
+    public static void record(final RdClientConfig config, final String baseUrl, final int version) {
+        ApiVersionCache cache = forConfig(config);
+        if (null == cache || version < 1) {
+            return;
+        }
+        try {
+            cache.put(baseUrl, version);
+        } catch (IOException ignored) {
+            //cache is only an optimization
+        }
+    }
+
+    private Properties load() {
+        Properties props = new Properties();
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                props.load(in);
+            } catch (IOException e) {
+                //treat unreadable cache as empty
+                return new Properties();
+            }
+        }
+        return props;
+    }
+
+    private void store(final Properties props) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        File temp = File.createTempFile(file.getName(), ".tmp", dir);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                props.store(out, "rd API version cache");
+            }
+            Files.move(
+                    temp.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.tool.InputError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a bulk API request over chunks of IDs with a bounded number of chunks in flight. Submitting blocks while the
+ * limit is reached, so the caller can produce the next chunk (e.g. fetch the next page of a query) while earlier
+ * chunks are being processed. IDs reported as failed by a chunk request are retried in a new request up to a given
+ * number of times, and a chunk request which fails entirely is retried with the same IDs. Each retry of a chunk waits
+ * longer than the last, doubling from the retry delay. Processing continues past failed chunks, and all results are
+ * collected for {@link #await()}.
+ *
+ * @param <S> type of succeeded item
+ * @param <F> type of failed item
+ */
+public class BulkExecutor<S, F>
+        implements Closeable
+{
+    /**
+     * Default delay before the first retry of a chunk
+     */
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 500;
+    private static final int MAX_BACKOFF_SHIFT = 4;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Phaser pending = new Phaser(1);
+    private final int retries;
+    private final long retryDelayMillis;
+    private final Function<F, String> failedId;
+    private final Consumer<Result<S, F>> progress;
+    private final Result<S, F> total = new Result<>();
+
+    /**
+     * Performs the request for a chunk
+     *
+     * @param <S> type of succeeded item
+     * @param <F> type of failed item
+     */
+    public interface ChunkCall<S, F> {
+        Result<S, F> call(List<String> ids) throws IOException, InputError;
+    }
+
+    /**
+     * @param parallelism max chunks in flight
+     * @param retries     max number of times to retry failed IDs of a chunk
+     * @param failedId    returns the ID of a failed item
+     * @param progress    receives the final result of each chunk, may be null
+     */
+    public BulkExecutor(
+            final int parallelism,
+            final int retries,
+            final Function<F, String> failedId,
+            final Consumer<Result<S, F>> progress
+    )
+    {
+        this(parallelism, retries, DEFAULT_RETRY_DELAY_MILLIS, failedId, progress);
+    }
+
+    /**
+     * @param parallelism      max chunks in flight
+     * @param retries          max number of times to retry failed IDs of a chunk
+     * @param retryDelayMillis delay before the first retry of a chunk, doubled for each further retry
+     * @param failedId         returns the ID of a failed item
+     * @param progress         receives the final result of each chunk, may be null
+     */
+    public BulkExecutor(
+            final int parallelism,
+            final int retries,
+            final long retryDelayMillis,
+            final Function<F, String> failedId,
+            final Consumer<Result<S, F>> progress
+    )
+    {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries cannot be negative: " + retries);
+        }
+        if (retryDelayMillis < 0) {
+            throw new IllegalArgumentException("Retry delay cannot be negative: " + retryDelayMillis);
+        }
+        this.retries = retries;
+        this.retryDelayMillis = retryDelayMillis;
+        this.failedId = failedId;
+        this.progress = progress;
+        this.permits = new Semaphore(parallelism);
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("rd-bulk-"));
+    }
+
+    /**
+     * Split a list into chunks
+     *
+     * @param ids  list
+     * @param size max chunk size
+     * @param <T>  item type
+     *
+     * @return chunks
+     */
+    public static <T> List<List<T>> chunks(final List<T> ids, final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1: " + size);
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += size) {
+            chunks.add(new ArrayList<>(ids.subList(i, Math.min(ids.size(), i + size))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Submit a chunk, blocking while the max number of chunks are in flight
+     *
+     * @param ids  chunk IDs
+     * @param call request
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void submit(final List<String> ids, final ChunkCall<S, F> call) throws InterruptedException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        permits.acquire();
+        pending.register();
+        executor.execute(() -> {
+            try {
+                Result<S, F> result = run(ids, call);
+                synchronized (total) {
+                    total.add(result);
+                    if (null != progress) {
+                        progress.accept(result);
+                    }
+                }
+            } finally {
+                permits.release();
+                pending.arriveAndDeregister();
+            }
+        });
+    }
+
+    private Result<S, F> run(final List<String> ids, final ChunkCall<S, F> call) {
+        Result<S, F> result = new Result<>();
+        result.requested = ids.size();
+        List<String> attempt = ids;
+        for (int i = 0; ; i++) {
+            if (i > 0 && !backoff(i)) {
+                result.errors.add(new ChunkError(attempt, new InterruptedException("Interrupted before retry")));
+                return result;
+            }
+            try {
+                Result<S, F> response = call.call(attempt);
+                result.succeeded.addAll(response.succeeded);
+                if (response.failed.isEmpty() || i >= retries) {
+                    result.failed.addAll(response.failed);
+                    result.errors.addAll(response.errors);
+                    return result;
+                }
+                attempt = response.failed.stream().map(failedId).collect(Collectors.toList());
+                result.retried += attempt.size();
+            } catch (IOException | InputError | RuntimeException e) {
+                if (i >= retries) {
+                    result.errors.add(new ChunkError(attempt, e));
+                    return result;
+                }
+                result.retried += attempt.size();
+            }
+        }
+    }
+
+    /**
+     * Wait before a retry, so that a server which is busy or still finishing the executions has time to recover
+     *
+     * @param retry retry number, starting at 1
+     *
+     * @return false if interrupted
+     */
+    private boolean backoff(final int retry) {
+        long delay = retryDelayMillis << Math.min(retry - 1, MAX_BACKOFF_SHIFT);
+        if (delay <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Wait for all submitted chunks to complete
+     *
+     * @return combined result
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Result<S, F> await() throws InterruptedException {
+        int phase = pending.arrive();
+        pending.awaitAdvanceInterruptibly(phase);
+        synchronized (total) {
+            return total;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Result of a chunk, or the combined result of all chunks
+     *
+     * @param <S> type of succeeded item
+     * @param <F> type of failed item
+     */
+    public static class Result<S, F> {
+        private final List<S> succeeded = new ArrayList<>();
+        private final List<F> failed = new ArrayList<>();
+        private final List<ChunkError> errors = new ArrayList<>();
+        private int requested;
+        private int retried;
+
+        public Result() {
+        }
+
+        /**
+         * @param requested number of IDs requested
+         * @param succeeded succeeded items
+         * @param failed    failed items
+         */
+        public Result(final int requested, final List<S> succeeded, final List<F> failed) {
+            this.requested = requested;
+            if (null != succeeded) {
+                this.succeeded.addAll(succeeded);
+            }
+            if (null != failed) {
+                this.failed.addAll(failed);
+            }
+        }
+
+        void add(final Result<S, F> other) {
+            requested += other.requested;
+            retried += other.retried;
+            succeeded.addAll(other.succeeded);
+            failed.addAll(other.failed);
+            errors.addAll(other.errors);
+        }
+
+        /**
+         * @return number of IDs which failed, including those in failed requests
+         */
+        public int getFailedCount() {
+            return failed.size() + errors.stream().mapToInt(e -> e.getIds().size()).sum();
+        }
+
+        public boolean isAllsuccessful() {
+            return failed.isEmpty() && errors.isEmpty();
+        }
+
+        public List<S> getSucceeded() {
+            return Collections.unmodifiableList(succeeded);
+        }
+
+        public List<F> getFailed() {
+            return Collections.unmodifiableList(failed);
+        }
+
+        public List<ChunkError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public int getRetried() {
+            return retried;
+        }
+    }
+
+    /**
+     * A chunk request which failed after all retries
+     */
+    public static class ChunkError {
+        private final List<String> ids;
+        private final Exception error;
+
+        public ChunkError(final List<String> ids, final Exception error) {
+            this.ids = ids;
+            this.error = error;
+        }
+
+        public List<String> getIds() {
+            return ids;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public String getMessage() {
+            return null != error.getMessage() ? error.getMessage() : error.toString();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("* %d IDs: '%s'", ids.size(), getMessage());
+        }
+    }
+}
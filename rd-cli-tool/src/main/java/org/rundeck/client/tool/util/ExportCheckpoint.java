@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Records the query offset and output file length after the last fully written page of an export, so that an
+ * interrupted export can truncate any partial output and resume from that offset. A hash of the query is stored as
+ * well, so that a checkpoint is not resumed by a different query. The file is replaced atomically on each save.
+ */
+public class ExportCheckpoint {
+    private final File file;
+    private final String queryHash;
+    private String loadedQueryHash;
+    private int offset;
+    private long length;
+
+    /**
+     * @param file  checkpoint file
+     * @param query canonical form of the export query, only its hash is stored
+     */
+    public ExportCheckpoint(final File file, final String query) {
+        this.file = file;
+        this.queryHash = hash(query);
+    }
+
+    /**
+     * @return true if a checkpoint exists and was loaded
+     *
+     * @throws IOException if the file cannot be read or is invalid
+     */
+    public boolean load() throws IOException {
+        if (!file.isFile()) {
+            return false;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            props.load(in);
+        }
+        try {
+            offset = Integer.parseInt(props.getProperty("offset"));
+            length = Long.parseLong(props.getProperty("length"));
+            loadedQueryHash = props.getProperty("query");
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint file: " + file, e);
+        }
+        return true;
+    }
+
+    /**
+     * Atomically record the checkpoint
+     *
+     * @param offset next query offset
+     * @param length output length written
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save(final int offset, final long length) throws IOException {
+        this.offset = offset;
+        this.length = length;
+        Properties props = new Properties();
+        props.setProperty("offset", Integer.toString(offset));
+        props.setProperty("length", Long.toString(length));
+        props.setProperty("query", queryHash);
+        File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+            props.store(out, "rd export checkpoint");
+        }
+        Files.move(
+                temp.toPath(),
+                file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    /**
+     * Remove the checkpoint after a completed export
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * @return true if the loaded checkpoint was recorded for the same query
+     */
+    public boolean matchesQuery() {
+        return queryHash.equals(loadedQueryHash);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    private static String hash(final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
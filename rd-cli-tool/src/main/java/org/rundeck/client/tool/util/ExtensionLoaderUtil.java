@@ -1,12 +1,45 @@
 package org.rundeck.client.tool.util;
 
+import org.rundeck.client.Version;
 import org.rundeck.client.tool.extension.RdCommandExtension;
+import picocli.CommandLine;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 public class ExtensionLoaderUtil {
+    /**
+     * Name of the extension index file in the extension dir
+     */
+    public static final String INDEX_FILE = ".rd-ext-index.properties";
+    static final String SERVICE_RESOURCE = "META-INF/services/" + RdCommandExtension.class.getName();
+    /**
+     * Resource listing the command name and aliases of extension classes, as "className=name,alias", so that the
+     * command names are known without loading the classes
+     */
+    public static final String COMMAND_INDEX_RESOURCE = "META-INF/rd-commands.properties";
+    private static final String FINGERPRINT = "@fingerprint";
+    private static final String ORDER = "@order";
+
     private static final ServiceLoader<RdCommandExtension>
             extensionServiceLoader =
             ServiceLoader.load(RdCommandExtension.class);
@@ -18,4 +51,242 @@ public class ExtensionLoaderUtil {
         }
         return list;
     }
+
+    /**
+     * An extension class and its command names, which can be loaded when selected
+     */
+    public static class Entry {
+        private final String className;
+        private final List<String> names;
+
+        public Entry(final String className, final List<String> names) {
+            this.className = className;
+            this.names = Collections.unmodifiableList(names);
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return command name and aliases, or empty if the class does not declare a name
+         */
+        public List<String> getNames() {
+            return names;
+        }
+
+        /**
+         * @param loader class loader
+         *
+         * @return extension class, not initialized
+         *
+         * @throws ClassNotFoundException if not found
+         */
+        public Class<?> load(final ClassLoader loader) throws ClassNotFoundException {
+            return Class.forName(className, false, loader);
+        }
+
+        @Override
+        public String toString() {
+            return className + names;
+        }
+    }
+
+    /**
+     * List the extension classes declared by service files visible to the class loader, without instantiating them.
+     * If an extension dir is given, the result is stored in an index file there, and reused while the jar files in
+     * the dir and the rd version are unchanged.
+     *
+     * @param loader class loader including any extension jars
+     * @param extDir extension dir, or null
+     *
+     * @return extension entries in service file order
+     */
+    public static List<Entry> index(final ClassLoader loader, final File extDir) {
+        if (null == extDir || !extDir.isDirectory()) {
+            return scan(loader);
+        }
+        File file = new File(extDir, INDEX_FILE);
+        String fingerprint = fingerprint(extDir);
+        List<Entry> entries = readIndex(file, fingerprint);
+        if (null != entries) {
+            return entries;
+        }
+        entries = scan(loader);
+        try {
+            writeIndex(file, fingerprint, entries);
+        } catch (IOException ignored) {
+            //index is only an optimization
+        }
+        return entries;
+    }
+
+    /**
+     * @param loader class loader
+     *
+     * @return extension entries declared by all service files, with the command names from the {@link
+     *         #COMMAND_INDEX_RESOURCE} files. Only classes missing from those are loaded to read their names.
+     */
+    static List<Entry> scan(final ClassLoader loader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        Properties commandIndex = new Properties();
+        try {
+            Enumeration<URL> resources = loader.getResources(SERVICE_RESOURCE);
+            while (resources.hasMoreElements()) {
+                classNames.addAll(readServiceFile(resources.nextElement()));
+            }
+            Enumeration<URL> indexes = loader.getResources(COMMAND_INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                try (InputStream in = indexes.nextElement().openStream()) {
+                    commandIndex.load(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading extension service files: " + e.getMessage(), e);
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (String className : classNames) {
+            String names = commandIndex.getProperty(className);
+            entries.add(new Entry(
+                    className,
+                    null != names ? splitNames(names) : commandNames(loader, className)
+            ));
+        }
+        return entries;
+    }
+
+    private static List<String> splitNames(final String names) {
+        List<String> list = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                list.add(name.trim());
+            }
+        }
+        return list;
+    }
+
+    private static List<String> readServiceFile(final URL url) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)
+        )) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                int comment = line.indexOf('#');
+                String name = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static List<String> commandNames(final ClassLoader loader, final String className) {
+        try {
+            return commandNames(Class.forName(className, false, loader));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @param cls command class
+     *
+     * @return name and aliases declared by the command annotation, or empty
+     */
+    public static List<String> commandNames(final Class<?> cls) {
+        List<String> names = new ArrayList<>();
+        CommandLine.Command command = cls.getAnnotation(CommandLine.Command.class);
+        if (null != command && !CommandLine.Command.DEFAULT_COMMAND_NAME.equals(command.name())) {
+            names.add(command.name());
+            names.addAll(Arrays.asList(command.aliases()));
+        }
+        return names;
+    }
+
+    private static List<Entry> readIndex(final File file, final String fingerprint) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            props.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!fingerprint.equals(props.getProperty(FINGERPRINT))) {
+            return null;
+        }
+        String[] order = props.getProperty(ORDER, "").split(",");
+        List<Entry> entries = new ArrayList<>();
+        for (String className : order) {
+            if (className.isEmpty()) {
+                continue;
+            }
+            String names = props.getProperty(className);
+            if (null == names) {
+                return null;
+            }
+            entries.add(new Entry(className, splitNames(names)));
+        }
+        return entries;
+    }
+
+    private static void writeIndex(final File file, final String fingerprint, final List<Entry> entries)
+            throws IOException
+    {
+        Properties props = new Properties();
+        props.setProperty(FINGERPRINT, fingerprint);
+        List<String> order = new ArrayList<>();
+        for (Entry entry : entries) {
+            order.add(entry.getClassName());
+            props.setProperty(entry.getClassName(), String.join(",", entry.getNames()));
+        }
+        props.setProperty(ORDER, String.join(",", order));
+        File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                props.store(out, "rd extension index");
+            }
+            Files.move(
+                    temp.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * @param extDir extension dir
+     *
+     * @return hash of the rd version, class path, and the name, size and modification time of each jar in the dir
+     */
+    static String fingerprint(final File extDir) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(Version.VERSION).append('\n');
+        sb.append(System.getProperty("java.class.path", "")).append('\n');
+        File[] jars = extDir.listFiles(f -> f.getName().endsWith(".jar"));
+        if (null != jars) {
+            Arrays.sort(jars);
+            for (File jar : jars) {
+                sb.append(jar.getName()).append(':')
+                  .append(jar.length()).append(':')
+                  .append(jar.lastModified()).append('\n');
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.api.model.ExecOutput;
+
+/**
+ * Computes the wait time between log output requests when following an execution. Polls again immediately if the
+ * previous response was a full page or more output is known to be available, waits the minimum interval when some
+ * output was received, and backs off exponentially up to the maximum interval while no new output arrives.
+ */
+public class FollowInterval {
+    public static final long DEFAULT_MIN_MILLIS = 500;
+    public static final long DEFAULT_MAX_MILLIS = 5000;
+
+    private final long minMillis;
+    private final long maxMillis;
+    private long current;
+
+    /**
+     * @param minMillis minimum wait in milliseconds when output was received
+     * @param maxMillis maximum wait in milliseconds when no output is available
+     */
+    public FollowInterval(final long minMillis, final long maxMillis) {
+        if (minMillis < 0) {
+            throw new IllegalArgumentException("Minimum interval cannot be negative: " + minMillis);
+        }
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException(String.format(
+                    "Maximum interval (%d) cannot be less than minimum interval (%d)",
+                    maxMillis,
+                    minMillis
+            ));
+        }
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.current = minMillis;
+    }
+
+    /**
+     * @return interval using the default min and max
+     */
+    public static FollowInterval defaults() {
+        return new FollowInterval(DEFAULT_MIN_MILLIS, DEFAULT_MAX_MILLIS);
+    }
+
+    /**
+     * @param minMillis minimum
+     *
+     * @return fixed interval which never changes
+     */
+    public static FollowInterval fixed(final long minMillis) {
+        return new FollowInterval(minMillis, minMillis);
+    }
+
+    /**
+     * Determine the wait before requesting the next page of output
+     *
+     * @param output previous output response
+     * @param max    max lines requested
+     *
+     * @return milliseconds to wait, 0 to request again immediately
+     */
+    public synchronized long nextDelay(final ExecOutput output, final long max) {
+        int count = output.entryCount();
+        if (count > 0 && (count >= max || output.percentLoaded < 100)) {
+            current = minMillis;
+            return 0;
+        }
+        if (output.unmodified || output.empty || count < 1) {
+            long delay = current;
+            current = Math.min(maxMillis, Math.max(1, current) * 2);
+            return delay;
+        }
+        current = minMillis;
+        return minMillis;
+    }
+
+    public long getMinMillis() {
+        return minMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.api.RundeckApi;
+import org.rundeck.client.api.model.ExecLog;
+import org.rundeck.client.api.model.ExecOutput;
+import org.rundeck.client.util.ExecOutputParser;
+import org.rundeck.client.util.ServiceClient;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Follows the output of many executions using a single service client and a small shared pool of scheduler
+ * threads. Each poll is scheduled after the delay computed by a per-execution {@link FollowInterval}, so no thread
+ * is blocked while waiting for more output. Log entries are streamed to the receiver as each response is parsed.
+ */
+public class FollowScheduler
+        implements Closeable
+{
+    private static final int CHUNK_SIZE = 100;
+    private final ServiceClient<RundeckApi> serviceClient;
+    private final ScheduledExecutorService executor;
+    private final long max;
+    private final Supplier<FollowInterval> intervals;
+
+    /**
+     * @param serviceClient client
+     * @param threads       number of scheduler threads
+     * @param max           max lines to retrieve with each request
+     * @param intervals     creates the poll interval for each followed execution
+     */
+    public FollowScheduler(
+            final ServiceClient<RundeckApi> serviceClient,
+            final int threads,
+            final long max,
+            final Supplier<FollowInterval> intervals
+    )
+    {
+        this.serviceClient = serviceClient;
+        this.max = max;
+        this.intervals = intervals;
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, threads), new DaemonThreadFactory("rd-follow-"));
+    }
+
+    /**
+     * Begin following an execution
+     *
+     * @param id       execution id
+     * @param restart  if true, start from the beginning of the output, otherwise tail
+     * @param tail     number of lines to tail if not restarting
+     * @param receiver receives decompacted log entries, called from a scheduler thread
+     *
+     * @return future which completes with the final execution state, or exceptionally if a request fails
+     */
+    public CompletableFuture<String> follow(
+            final String id,
+            final boolean restart,
+            final long tail,
+            final Consumer<List<ExecLog>> receiver
+    )
+    {
+        Follow follow = new Follow(id, restart, tail, receiver, intervals.get());
+        schedule(follow, 0);
+        return follow.result;
+    }
+
+    private void schedule(final Follow follow, final long delay) {
+        try {
+            executor.schedule(() -> poll(follow), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            follow.result.completeExceptionally(e);
+        }
+    }
+
+    private void poll(final Follow follow) {
+        if (follow.result.isDone()) {
+            return;
+        }
+        try {
+            ExecOutput output = follow.request(serviceClient, max);
+            if (output.execCompleted && output.completed) {
+                follow.result.complete(output.execState);
+                return;
+            }
+            follow.previous = output;
+            schedule(follow, follow.interval.nextDelay(output, max));
+        } catch (IOException | RuntimeException e) {
+            follow.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stops all pending polls
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static class Follow {
+        final String id;
+        final boolean restart;
+        final long tail;
+        final Consumer<List<ExecLog>> receiver;
+        final FollowInterval interval;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        ExecOutput previous;
+
+        Follow(
+                final String id,
+                final boolean restart,
+                final long tail,
+                final Consumer<List<ExecLog>> receiver,
+                final FollowInterval interval
+        )
+        {
+            this.id = id;
+            this.restart = restart;
+            this.tail = tail;
+            this.receiver = receiver;
+            this.interval = interval;
+        }
+
+        ExecOutput request(final ServiceClient<RundeckApi> serviceClient, final long max)
+                throws IOException
+        {
+            if (null == previous && !restart) {
+                ExecOutput output = serviceClient.apiCall(api -> api.getOutput(id, tail));
+                receiver.accept(output.decompactEntries());
+                return output;
+            }
+            return ExecOutputParser.getOutput(
+                    serviceClient,
+                    id,
+                    null != previous ? previous.offset : 0L,
+                    null != previous ? previous.lastModified : 0L,
+                    max,
+                    true,
+                    CHUNK_SIZE,
+                    receiver
+            );
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.api.model.JobItem;
+import org.rundeck.client.tool.InputError;
+import org.rundeck.client.tool.extension.RdTool;
+import org.rundeck.client.util.RdClientConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Local cache of job group/name to job ID mappings for a single Rundeck URL and project, stored as a properties file
+ * in the cache directory. Entries older than the TTL are ignored. The cache is only used if {@link #RD_JOB_CACHE_TTL}
+ * is set.
+ */
+public class JobIdCache {
+    /**
+     * Time to live for cached job IDs, in seconds
+     */
+    public static final String RD_JOB_CACHE_TTL = "RD_JOB_CACHE_TTL";
+    /**
+     * Directory for local cache files, default: ~/.rd/cache
+     */
+    public static final String RD_CACHE_DIR = "RD_CACHE_DIR";
+
+    private final File file;
+    private final long ttlMillis;
+
+    /**
+     * @param file      cache file
+     * @param ttlMillis time to live for entries
+     */
+    public JobIdCache(final File file, final long ttlMillis) {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @param rdTool  tool
+     * @param project project name
+     *
+     * @return cache for the tool's URL and the project, or null if the cache is not enabled
+     *
+     * @throws InputError if the client cannot be created
+     */
+    public static JobIdCache forProject(final RdTool rdTool, final String project) throws InputError {
+        Long ttl = rdTool.getAppConfig().getLong(RD_JOB_CACHE_TTL, null);
+        if (null == ttl || ttl < 1) {
+            return null;
+        }
+        File dir = cacheDir(rdTool.getAppConfig());
+        String name = "jobids-" + hash(rdTool.getClient().getAppBaseUrl() + "\n" + project) + ".properties";
+        return new JobIdCache(new File(dir, name), ttl * 1000);
+    }
+
+    /**
+     * @param config config
+     *
+     * @return configured cache directory, or ~/.rd/cache
+     */
+    public static File cacheDir(final RdClientConfig config) {
+        String dir = config.getString(RD_CACHE_DIR, null);
+        if (null != dir) {
+            return new File(dir);
+        }
+        return new File(new File(System.getProperty("user.home"), ".rd"), "cache");
+    }
+
+    /**
+     * @param group job group, or null
+     * @param name  job name
+     *
+     * @return cache key
+     */
+    public static String key(final String group, final String name) {
+        return null != group && !"".equals(group.trim()) ? group + "/" + name : name;
+    }
+
+    /**
+     * @param key job group/name
+     *
+     * @return cached ID, or null if not cached or expired
+     */
+    public String get(final String key) {
+        String value = load().getProperty(key);
+        if (null == value) {
+            return null;
+        }
+        int i = value.indexOf(' ');
+        if (i < 1) {
+            return null;
+        }
+        try {
+            long time = Long.parseLong(value.substring(0, i));
+            if (System.currentTimeMillis() - time > ttlMillis) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return value.substring(i + 1);
+    }
+
+    /**
+     * Store an entry
+     *
+     * @param key job group/name
+     * @param id  job ID
+     */
+    public void put(final String key, final String id) throws IOException {
+        Properties props = load();
+        props.setProperty(key, entry(id));
+        store(props);
+    }
+
+    /**
+     * Remove an entry, e.g. if the job ID was not found
+     *
+     * @param key job group/name
+     */
+    public void remove(final String key) throws IOException {
+        Properties props = load();
+        if (null != props.remove(key)) {
+            store(props);
+        }
+    }
+
+    /**
+     * Replace all entries
+     *
+     * @param jobs all jobs in the project
+     *
+     * @return number of entries stored
+     */
+    public int replaceAll(final List<JobItem> jobs) throws IOException {
+        Properties props = new Properties();
+        for (JobItem job : jobs) {
+            props.setProperty(key(job.getGroup(), job.getName()), entry(job.getId()));
+        }
+        store(props);
+        return props.size();
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void clear() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    private static String entry(final String id) {
+        return System.currentTimeMillis() + " " + id;
+    }
+
+    private Properties load() {
+        Properties props = new Properties();
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                props.load(in);
+            } catch (IOException e) {
+                //treat unreadable cache as empty
+                return new Properties();
+            }
+        }
+        return props;
+    }
+
+    private void store(final Properties props) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(dir.toPath());
+        File temp = File.createTempFile(file.getName(), ".tmp", dir);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+                props.store(out, "rd job ID cache");
+            }
+            Files.move(
+                    temp.toPath(),
+                    file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    private static String hash(final String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
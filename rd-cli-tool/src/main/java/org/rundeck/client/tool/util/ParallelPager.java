@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util;
+
+import org.rundeck.client.tool.InputError;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches a range of offset windows concurrently, with at most a fixed number of requests in flight, and delivers
+ * each page to the consumer in offset order on the calling thread as soon as it and all earlier pages are available.
+ *
+ * @param <T> page type
+ */
+public class ParallelPager<T>
+        implements Closeable
+{
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    /**
+     * Fetch a page
+     *
+     * @param <T> page type
+     */
+    public interface PageFetcher<T> {
+        T fetch(int offset) throws IOException, InputError;
+    }
+
+    /**
+     * Receive a page
+     *
+     * @param <T> page type
+     */
+    public interface PageConsumer<T> {
+        void accept(int offset, T page) throws IOException, InputError;
+    }
+
+    /**
+     * @param parallelism max concurrent fetches
+     */
+    public ParallelPager(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("rd-page-"));
+    }
+
+    /**
+     * Fetch pages at offsets {@code start, start + step, ...} below {@code end}
+     *
+     * @param start    first offset
+     * @param end      exclusive end offset
+     * @param step     page size
+     * @param fetcher  fetches a page, called concurrently
+     * @param consumer receives pages in offset order
+     *
+     * @throws IOException if a fetch or the consumer fails, remaining fetches are cancelled
+     * @throws InputError  if a fetch or the consumer fails, remaining fetches are cancelled
+     */
+    public void fetch(
+            final int start,
+            final int end,
+            final int step,
+            final PageFetcher<T> fetcher,
+            final PageConsumer<T> consumer
+    ) throws IOException, InputError
+    {
+        if (step < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1: " + step);
+        }
+        Deque<Window<T>> inflight = new ArrayDeque<>();
+        int next = start;
+        try {
+            while (next < end || !inflight.isEmpty()) {
+                while (next < end && inflight.size() < parallelism) {
+                    final int offset = next;
+                    inflight.add(new Window<>(offset, executor.submit(() -> fetcher.fetch(offset))));
+                    next += step;
+                }
+                Window<T> window = inflight.remove();
+                consumer.accept(window.offset, await(window.future));
+            }
+        } finally {
+            for (Window<T> window : inflight) {
+                window.future.cancel(true);
+            }
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws IOException, InputError {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof InputError) {
+                throw (InputError) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static class Window<T> {
+        final int offset;
+        final Future<T> future;
+
+        Window(final int offset, final Future<T> future) {
+            this.offset = offset;
+            this.future = future;
+        }
+    }
+}
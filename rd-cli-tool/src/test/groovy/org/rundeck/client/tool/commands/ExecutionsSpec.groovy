@@ -16,25 +16,34 @@
 
 package org.rundeck.client.tool.commands
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.rundeck.client.api.model.BulkExecutionDeleteResponse
 import org.rundeck.client.api.model.Execution
 import org.rundeck.client.api.model.ExecutionList
 import org.rundeck.client.api.model.JobItem
 import org.rundeck.client.api.model.Paging
 import org.rundeck.client.testing.MockRdTool
 import org.rundeck.client.tool.CommandOutput
+import org.rundeck.client.tool.InputError
 import org.rundeck.client.tool.RdApp
 import org.rundeck.client.tool.extension.RdTool
 import org.rundeck.client.tool.options.ExecutionOutputFormatOption
+import org.rundeck.client.tool.options.ExecutionsFollowOptions
 import org.rundeck.client.tool.options.PagingResultOptions
 import org.rundeck.client.tool.options.ProjectNameOptions
+import org.rundeck.client.tool.util.ExportCheckpoint
 import org.rundeck.client.util.RdClientConfig
 
+import okhttp3.Headers
+import okhttp3.MediaType
+import okhttp3.ResponseBody
 import okhttp3.mockwebserver.MockResponse
 import okhttp3.mockwebserver.MockWebServer
 import okhttp3.mockwebserver.RecordedRequest
 import org.rundeck.client.api.RundeckApi
 import org.rundeck.client.api.model.ExecOutput
 import org.rundeck.client.util.Client
+import retrofit2.Response
 import retrofit2.Retrofit
 import retrofit2.converter.jackson.JacksonConverterFactory
 import retrofit2.mock.Calls
@@ -75,6 +84,76 @@ class ExecutionsSpec extends Specification {
         false | true
     }
 
+    def "deletebulk deletes chunks and retries failed ids"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def report = File.createTempFile('ExecutionsSpec', '.json')
+        report.deleteOnExit()
+
+        def options = new Executions.BulkDeleteCmd(
+                idlist: '1,2,3',
+                confirm: true,
+                chunkSize: 2,
+                parallel: 1,
+                retry: 1,
+                failures: report
+        )
+
+        when:
+        def result = command.deletebulk(options, new PagingResultOptions(), new ExecutionOutputFormatOption())
+
+        then:
+        1 * api.deleteExecutions({ it.ids == ['1', '2'] }) >> Calls.response(
+                new BulkExecutionDeleteResponse(
+                        successCount: 1,
+                        failedCount: 1,
+                        failures: [new BulkExecutionDeleteResponse.DeleteFailure(id: '2', message: 'running')]
+                )
+        )
+        1 * api.deleteExecutions({ it.ids == ['2'] }) >> Calls.response(
+                new BulkExecutionDeleteResponse(
+                        successCount: 0,
+                        failedCount: 1,
+                        failures: [new BulkExecutionDeleteResponse.DeleteFailure(id: '2', message: 'running')]
+                )
+        )
+        1 * api.deleteExecutions({ it.ids == ['3'] }) >> Calls.response(
+                new BulkExecutionDeleteResponse(successCount: 1, allsuccessful: true, failures: [])
+        )
+        0 * api._(*_)
+        !result
+        new ObjectMapper().readValue(report, List) == [[id: '2', message: 'running']]
+    }
+
+    def "deletebulk validates options before querying"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = Mock(CommandOutput)
+        def options = new Executions.BulkDeleteCmd(project: 'aproject', chunkSize: chunk, parallel: parallel, retry: retry)
+
+        when:
+        command.deletebulk(options, new PagingResultOptions(), new ExecutionOutputFormatOption())
+
+        then:
+        0 * api._(*_)
+        InputError e = thrown()
+        e.message.contains(option)
+
+        where:
+        chunk | parallel | retry | option
+        0     | 1        | 0     | '--chunksize'
+        1     | 0        | 0     | '--parallel'
+        1     | 1        | -1    | '--retry'
+    }
+
     private RdTool setupMock(RundeckApi api) {
         def retrofit = new Retrofit.Builder().baseUrl('http://example.com/fake/').build()
         def client = new Client(api, retrofit, null, null, 18, true, null)
@@ -197,6 +276,249 @@ class ExecutionsSpec extends Specification {
 
     }
 
+    def "follow multiple executions prefixes output with execution id"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def options = new ExecutionsFollowOptions(ids: ['1', '2'], restart: true, threads: 2, pollMin: 0, pollMax: 0)
+
+        when:
+        def result = command.follow(options, new Executions.FollowQuery())
+
+        then:
+        1 * api.getOutputStream('1', 0L, 0L, 500L, true) >> Calls.response(
+                ResponseBody.create(
+                        '{"execState":"succeeded","execCompleted":true,"completed":true,"entries":[{"log":"a"}]}',
+                        Client.MEDIA_TYPE_JSON
+                )
+        )
+        1 * api.getOutputStream('2', 0L, 0L, 500L, true) >> Calls.response(
+                ResponseBody.create(
+                        '{"execState":"failed","execCompleted":true,"completed":true,"entries":[{"log":"b"}]}',
+                        Client.MEDIA_TYPE_JSON
+                )
+        )
+        1 * out.output('[1] a')
+        1 * out.output('[2] b')
+        1 * out.info('[1] succeeded')
+        1 * out.info('[2] failed')
+        !result
+    }
+
+    def "output writes log text pages to file"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def file = File.createTempFile('ExecutionsSpec', '.log')
+        file.deleteOnExit()
+        def options = new Executions.OutputCmd(id: '123', toFile: file, maxLines: 2)
+        def text = MediaType.parse('text/plain')
+
+        when:
+        def result = command.output(options)
+
+        then:
+        1 * api.getOutputText('123', 0L, 0L, 2L) >> Calls.response(
+                Response.success(
+                        ResponseBody.create('line1\nline2\n', text),
+                        Headers.of(
+                                'X-Rundeck-ExecOutput-Offset', '12',
+                                'X-Rundeck-ExecOutput-LastModifed', '99',
+                                'X-Rundeck-ExecOutput-Completed', 'false',
+                                'X-Rundeck-Exec-Completed', 'true',
+                                'X-Rundeck-Exec-State', 'succeeded'
+                        )
+                )
+        )
+        1 * api.getOutputText('123', 12L, 99L, 2L) >> Calls.response(
+                Response.success(
+                        ResponseBody.create('line3\n', text),
+                        Headers.of(
+                                'X-Rundeck-ExecOutput-Offset', '18',
+                                'X-Rundeck-ExecOutput-LastModifed', '99',
+                                'X-Rundeck-ExecOutput-Completed', 'true',
+                                'X-Rundeck-Exec-Completed', 'true',
+                                'X-Rundeck-Exec-State', 'succeeded'
+                        )
+                )
+        )
+        0 * api._(*_)
+        result
+        file.text == 'line1\nline2\nline3\n'
+    }
+
+    def "output of a running execution stops when caught up unless all"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def file = File.createTempFile('ExecutionsSpec', '.log')
+        file.deleteOnExit()
+        def options = new Executions.OutputCmd(id: '123', toFile: file, maxLines: 2, all: all)
+        def text = MediaType.parse('text/plain')
+        def page = { String body, String offset, boolean done ->
+            Calls.response(
+                    Response.success(
+                            ResponseBody.create(body, text),
+                            Headers.of(
+                                    'X-Rundeck-ExecOutput-Offset', offset,
+                                    'X-Rundeck-ExecOutput-Completed', "${done}",
+                                    'X-Rundeck-Exec-Completed', "${done}",
+                                    'X-Rundeck-Exec-State', done ? 'succeeded' : 'running'
+                            )
+                    )
+            )
+        }
+
+        when:
+        def result = command.output(options)
+
+        then:
+        1 * api.getOutputText('123', 0L, 0L, 2L) >> page('line1\n', '6', false)
+        1 * api.getOutputText('123', 6L, 0L, 2L) >> (all ? page('line2\n', '12', true) : page('', '6', false))
+        0 * api._(*_)
+        result == all
+        file.text == expected
+        (all ? 0 : 1) * out.warning({ it.contains('has not completed') })
+
+        where:
+        all   | expected
+        false | 'line1\n'
+        true  | 'line1\nline2\n'
+    }
+
+    def "output fails without offset header"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def options = new Executions.OutputCmd(id: '123', maxLines: 2)
+
+        when:
+        command.output(options)
+
+        then:
+        1 * api.getOutputText('123', 0L, 0L, 2L) >> Calls.response(
+                Response.success(ResponseBody.create('line1\n', MediaType.parse('text/plain')))
+        )
+        0 * api._(*_)
+        IOException e = thrown()
+        e.message.contains('X-Rundeck-ExecOutput-Offset')
+    }
+
+    def "export writes pages in order as ndjson"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def file = File.createTempFile('ExecutionsSpec', '.ndjson')
+        file.deleteOnExit()
+        def checkpoint = new File(file.path + '.checkpoint')
+        def options = new Executions.ExportCmd(project: 'aproject', file: file, parallel: 2, pageSize: 1)
+
+        when:
+        command.export(options)
+
+        then:
+        1 * api.listExecutions('aproject', [max: '1', offset: '0'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 0, max: 1, total: 3, count: 1),
+                        executions: [new Execution(id: '1', description: '')]
+                )
+        )
+        1 * api.listExecutions('aproject', [max: '1', offset: '1'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 1, max: 1, total: 3, count: 1),
+                        executions: [new Execution(id: '2', description: '')]
+                )
+        )
+        1 * api.listExecutions('aproject', [max: '1', offset: '2'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 2, max: 1, total: 3, count: 1),
+                        executions: [new Execution(id: '3', description: '')]
+                )
+        )
+        0 * api._(*_)
+        file.readLines().collect { new ObjectMapper().readValue(it, Map).id } == ['1', '2', '3']
+        !checkpoint.exists()
+    }
+
+    def "export resumes from checkpoint"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def file = File.createTempFile('ExecutionsSpec', '.ndjson')
+        file.deleteOnExit()
+        file.text = '{"id":"1"}\n{"id":"2"'
+        def checkpoint = new File(file.path + '.checkpoint')
+        checkpoint.deleteOnExit()
+        def options = new Executions.ExportCmd(project: 'aproject', file: file, parallel: 2, pageSize: 1)
+        new ExportCheckpoint(checkpoint, command.exportQuery('aproject', options)).save(1, 11)
+
+        when:
+        command.export(options)
+
+        then:
+        1 * api.listExecutions('aproject', [max: '1', offset: '1'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 1, max: 1, total: 2, count: 1),
+                        executions: [new Execution(id: '2', description: '')]
+                )
+        )
+        0 * api._(*_)
+        file.readLines().collect { new ObjectMapper().readValue(it, Map).id } == ['1', '2']
+        !checkpoint.exists()
+    }
+
+    def "export does not resume a checkpoint of a different query"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+        def file = File.createTempFile('ExecutionsSpec', '.ndjson')
+        file.deleteOnExit()
+        file.text = '{"id":"1"}\n'
+        def checkpoint = new File(file.path + '.checkpoint')
+        checkpoint.deleteOnExit()
+        def other = new Executions.ExportCmd(project: 'aproject', file: file, userFilter: 'bob')
+        new ExportCheckpoint(checkpoint, command.exportQuery('aproject', other)).save(1, 11)
+        def options = new Executions.ExportCmd(project: 'aproject', file: file, parallel: 2, pageSize: 1)
+
+        when:
+        command.export(options)
+
+        then:
+        0 * api._(*_)
+        InputError e = thrown()
+        e.message.contains('different query')
+        file.text == '{"id":"1"}\n'
+        checkpoint.exists()
+    }
+
     def "parse execution"() {
         given:
         MockWebServer server = new MockWebServer();
@@ -356,4 +678,46 @@ class ExecutionsSpec extends Specification {
         true     | true
         false    | false
     }
+
+    def "executions query --autopage outputs each page before loading the next"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Executions command = new Executions()
+        command.rdTool = rdTool
+        command.rdOutput = out
+
+        def options = new Executions.QueryCmd()
+        options.project = 'aproject'
+        options.nonInteractive = true
+        options.autoLoadPages = true
+
+        when:
+        def result = command.query(options, new PagingResultOptions(max: 1), new ExecutionOutputFormatOption())
+
+        then:
+        1 * api.listExecutions('aproject', [max: '1', offset: '0'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 0, max: 1, total: 2, count: 1),
+                        executions: [new Execution(id: '1', description: '')]
+                )
+        )
+
+        then:
+        1 * out.output({ it.startsWith('1 ') })
+
+        then:
+        1 * api.listExecutions('aproject', [max: '1', offset: '1'], null, null, null, null) >> Calls.response(
+                new ExecutionList(
+                        paging: new Paging(offset: 1, max: 1, total: 2, count: 1),
+                        executions: [new Execution(id: '2', description: '')]
+                )
+        )
+
+        then:
+        1 * out.output({ it.startsWith('2 ') })
+        0 * api._(*_)
+        result.paging.offset == 1
+    }
 }
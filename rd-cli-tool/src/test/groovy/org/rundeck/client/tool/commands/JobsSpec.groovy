@@ -26,6 +26,8 @@ import org.rundeck.client.tool.InputError
 import okhttp3.MediaType
 import okhttp3.ResponseBody
 import org.rundeck.client.api.RundeckApi
+import org.rundeck.client.api.model.BulkToggleJobExecutionResponse
+import org.rundeck.client.api.model.DeleteJob
 import org.rundeck.client.api.model.DeleteJobsResult
 import org.rundeck.client.api.model.ImportResult
 import org.rundeck.client.api.model.JobItem
@@ -33,6 +35,7 @@ import org.rundeck.client.api.model.JobLoadItem
 import org.rundeck.client.api.model.scheduler.ScheduledJobItem
 import org.rundeck.client.tool.RdApp
 import org.rundeck.client.tool.extension.RdTool
+import org.rundeck.client.tool.options.BulkJobActionOptions
 import org.rundeck.client.tool.options.JobFileOptions
 import org.rundeck.client.tool.options.JobIdentOptions
 import org.rundeck.client.tool.options.JobListOptions
@@ -48,6 +51,8 @@ import retrofit2.mock.Calls
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.stream.Collectors
+
 /**
  * @author greg
  * @since 12/13/16
@@ -286,6 +291,128 @@ class JobsSpec extends Specification {
             'a' | 99    | 5     | 99  || [5]
     }
 
+    def "job purge continues past failed batches and backs up each batch"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Jobs command = new Jobs()
+        command.rdTool = rdTool
+        command.rdOutput = out
+
+        def opts = new Jobs.Purge(confirm: true, batchSize: 1, parallel: 2)
+        def listOpts = new JobListOptions()
+        listOpts.setJob('a')
+        listOpts.setProject 'ProjectName'
+        def file = File.createTempFile('JobsSpec', '.yaml')
+        file.deleteOnExit()
+        def fileOpts = new JobFileOptions(file: file, format: JobFileOptions.Format.yaml)
+
+        when:
+        def result = command.purge(opts, new JobOutputFormatOption(), fileOpts, listOpts)
+
+        then:
+        1 * api.listJobs('ProjectName', 'a', null, null, null) >>
+        Calls.response((1..3).collect { new JobItem(id: "fakeid_$it") })
+        3 * api.exportJobs('ProjectName', _, 'yaml') >> { args ->
+            Calls.response(ResponseBody.create("- id: ${args[1]}\n", Client.MEDIA_TYPE_YAML))
+        }
+        1 * api.deleteJobsBulk({ it.ids == ['fakeid_1'] }) >> Calls.response(new DeleteJobsResult(allsuccessful: true))
+        1 * api.deleteJobsBulk({ it.ids == ['fakeid_2'] }) >> Calls.response(
+                new DeleteJobsResult(allsuccessful: false, failed: [new DeleteJob(id: 'fakeid_2', message: 'failed')])
+        )
+        1 * api.deleteJobsBulk({ it.ids == ['fakeid_3'] }) >> Calls.response(new DeleteJobsResult(allsuccessful: true))
+        0 * api._(*_)
+        !result
+        file.readLines().sort() == ['- id: fakeid_1', '- id: fakeid_2', '- id: fakeid_3']
+    }
+
+    def "job purge merges xml backup batches into one joblist"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Jobs command = new Jobs()
+        command.rdTool = rdTool
+        command.rdOutput = out
+
+        def opts = new Jobs.Purge(confirm: true, batchSize: 1)
+        def listOpts = new JobListOptions()
+        listOpts.setJob('a')
+        listOpts.setProject 'ProjectName'
+        def file = File.createTempFile('JobsSpec', '.xml')
+        file.deleteOnExit()
+        def fileOpts = new JobFileOptions(file: file, format: JobFileOptions.Format.xml)
+
+        when:
+        def result = command.purge(opts, new JobOutputFormatOption(), fileOpts, listOpts)
+
+        then:
+        1 * api.listJobs('ProjectName', 'a', null, null, null) >>
+        Calls.response((1..3).collect { new JobItem(id: "fakeid_$it") })
+        1 * api.exportJobs('ProjectName', 'fakeid_1', 'xml') >> Calls.response(ResponseBody.create(
+                '<?xml version="1.0" encoding="UTF-8"?>\n<joblist>\n  <job><id>fakeid_1</id></job>\n</joblist>\n',
+                Client.MEDIA_TYPE_XML
+        ))
+        1 * api.exportJobs('ProjectName', 'fakeid_2', 'xml') >> Calls.response(ResponseBody.create(
+                '<joblist/>',
+                Client.MEDIA_TYPE_XML
+        ))
+        1 * api.exportJobs('ProjectName', 'fakeid_3', 'xml') >> Calls.response(ResponseBody.create(
+                '<joblist><job><id>fakeid_3</id>' + ' ' * 10000 + '</job></joblist>',
+                Client.MEDIA_TYPE_XML
+        ))
+        3 * api.deleteJobsBulk(_) >> Calls.response(new DeleteJobsResult(allsuccessful: true))
+        0 * api._(*_)
+        result
+        file.text == '<?xml version="1.0" encoding="UTF-8"?>\n<joblist>\n' +
+                     '\n  <job><id>fakeid_1</id></job>\n' +
+                     '<job><id>fakeid_3</id>' + ' ' * 10000 + '</job>\n' +
+                     '</joblist>\n'
+    }
+
+    def "enablebulk sends batches and retries failed ids"() {
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api)
+        def out = Mock(CommandOutput)
+        Jobs command = new Jobs()
+        command.rdTool = rdTool
+        command.rdOutput = out
+
+        def opts = new BulkJobActionOptions(confirm: true, batchSize: 2, parallel: 2, retry: 1)
+        opts.idlist = ['a', 'b', 'c']
+
+        when:
+        def result = command.enablebulk(opts, new VerboseOption())
+
+        then:
+        1 * api.bulkEnableJobs({ it.ids == ['a', 'b'] }) >> Calls.response(
+                new BulkToggleJobExecutionResponse(
+                        requestCount: 2,
+                        succeeded: [new BulkToggleJobExecutionResponse.Result(id: 'a')],
+                        failed: [new BulkToggleJobExecutionResponse.Result(id: 'b', message: 'timeout')]
+                )
+        )
+        1 * api.bulkEnableJobs({ it.ids == ['b'] }) >> Calls.response(
+                new BulkToggleJobExecutionResponse(
+                        requestCount: 1,
+                        allsuccessful: true,
+                        succeeded: [new BulkToggleJobExecutionResponse.Result(id: 'b')]
+                )
+        )
+        1 * api.bulkEnableJobs({ it.ids == ['c'] }) >> Calls.response(
+                new BulkToggleJobExecutionResponse(
+                        requestCount: 1,
+                        allsuccessful: true,
+                        succeeded: [new BulkToggleJobExecutionResponse.Result(id: 'c')]
+                )
+        )
+        0 * api._(*_)
+        1 * out.info('3 Jobs were enabled' + String.format('%n'))
+        result
+    }
+
     def "job purge invalid input"() {
         given:
         def api = Mock(RundeckApi)
@@ -322,7 +449,7 @@ class JobsSpec extends Specification {
 
         then:
         1 * api.getJobInfo('123') >> Calls.response(new ScheduledJobItem(id: '123', href: 'monkey'))
-        1 * out.output([result])
+        1 * out.outputStream({ it.collect(Collectors.toList()) == [result] })
 
 
         where:
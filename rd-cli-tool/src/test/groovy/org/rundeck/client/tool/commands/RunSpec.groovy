@@ -113,6 +113,40 @@ class RunSpec extends Specification {
 
     }
 
+    def "run command -j uses cached job id"() {
+
+        given:
+        def api = Mock(RundeckApi)
+        RdTool rdTool = setupMock(api, 17)
+        def cacheDir = File.createTempDir()
+        cacheDir.deleteOnExit()
+        rdTool.appConfig = Mock(RdClientConfig) {
+            getLong('RD_JOB_CACHE_TTL', null) >> 60L
+            getString('RD_CACHE_DIR', null) >> cacheDir.absolutePath
+        }
+        def out = Mock(CommandOutput)
+
+        when:
+        def results = (1..2).collect {
+            Run command = new Run()
+            command.rdTool = rdTool
+            command.rdOutput = out
+            command.options.project = 'ProjectName'
+            command.options.job = 'a group/path/a job'
+            command.call()
+        }
+
+        then:
+        1 * api.listJobs('ProjectName', null, null, 'a job', 'a group/path') >>
+                Calls.response([new JobItem(id: 'fakeid', group: 'a group/path', name: 'a job')])
+        2 * api.runJob('fakeid', null, null, null, null) >> Calls.response(new Execution(id: 123, description: ''))
+        0 * api._(*_)
+        results == [0, 0]
+
+        cleanup:
+        cacheDir.deleteDir()
+    }
+
     def "run command loglevel debug"() {
 
         given:
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.daemon
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class DaemonServerSpec extends Specification {
+    def "stdin frames round trip"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        def out = new DataOutputStream(bytes)
+        def frames = new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDIN)
+
+        when:
+        frames.write('abc'.bytes)
+        frames.flush()
+        frames.write('de'.bytes)
+        frames.flush()
+        DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN, new byte[0], 0, 0)
+        def input = new DaemonProtocol.FrameInputStream(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))
+        )
+
+        then:
+        input.text == 'abcde'
+    }
+
+    def "forwarded env is looked up like Env"() {
+        given:
+        def values = DaemonServer.envValues([RD_URL: 'http://host', RD_HTTP_TIMEOUT: '5'])
+
+        expect:
+        values.get('RD_URL') == 'http://host'
+        values.get('rd.http.timeout') == '5'
+        values.get('RD_TOKEN') == null
+    }
+
+    def "forwarded env only includes values read by config"() {
+        expect:
+        DaemonProtocol.forwardedEnv([
+                RD_URL     : 'http://host',
+                RD_TOKEN   : 'abc',
+                TRACEPARENT: 'tp',
+                TERM       : 'xterm',
+                HOME       : '/home/user',
+                AWS_SECRET : 'secret'
+        ]) == [RD_URL: 'http://host', RD_TOKEN: 'abc', TRACEPARENT: 'tp', TERM: 'xterm']
+    }
+
+    def "proof depends on the token, label and nonces"() {
+        given:
+        def proof = DaemonProtocol.proof('token', DaemonProtocol.SERVER_PROOF, 'a', 'b')
+
+        expect:
+        DaemonProtocol.verify(proof, DaemonProtocol.proof('token', DaemonProtocol.SERVER_PROOF, 'a', 'b'))
+        !DaemonProtocol.verify(proof, DaemonProtocol.proof('other', DaemonProtocol.SERVER_PROOF, 'a', 'b'))
+        !DaemonProtocol.verify(proof, DaemonProtocol.proof('token', DaemonProtocol.CLIENT_PROOF, 'a', 'b'))
+        !DaemonProtocol.verify(proof, DaemonProtocol.proof('token', DaemonProtocol.SERVER_PROOF, 'b', 'a'))
+    }
+
+    def "launcher sends nothing more to a process without the token"() {
+        given:
+        def serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())
+        def state = new DaemonState(serverSocket.localPort, 'secret-token', new File('').absolutePath, '1')
+        def received = new ByteArrayOutputStream()
+        def thread = Thread.start {
+            serverSocket.accept().withCloseable { socket ->
+                def input = new DataInputStream(socket.inputStream)
+                def out = new DataOutputStream(socket.outputStream)
+                DaemonProtocol.readString(input)
+                def nonce = DaemonProtocol.readString(input)
+                DaemonProtocol.writeChallenge(
+                        out,
+                        'servernonce',
+                        DaemonProtocol.proof('guess', DaemonProtocol.SERVER_PROOF, nonce, 'servernonce')
+                )
+                received << input
+            }
+        }
+
+        when:
+        DaemonClient.status(state)
+
+        then:
+        thrown(DaemonClient.DaemonAuthException)
+        thread.join(10000)
+        received.size() == 0
+
+        cleanup:
+        serverSocket.close()
+    }
+
+    def "daemon reports status and stops"() {
+        given:
+        def file = File.createTempFile('daemon', '.properties')
+        file.delete()
+        def server = new DaemonServer(file, 1, 0, new PrintStream(new ByteArrayOutputStream(), true))
+        def thread = Thread.start { server.serve() }
+
+        when:
+        new PollingConditions(timeout: 10).eventually {
+            assert DaemonState.load(file) != null
+        }
+        def state = DaemonState.load(file)
+
+        then:
+        state.dir == new File('').absolutePath
+        DaemonClient.isRunning(state)
+        DaemonClient.status(state) == 0
+
+        when:
+        DaemonClient.stop(state)
+        thread.join(10000)
+
+        then:
+        !thread.alive
+        !file.exists()
+        !DaemonClient.isRunning(state)
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.rundeck.client.tool.format
+
+import org.rundeck.client.tool.CommandOutput
+import org.yaml.snakeyaml.DumperOptions
+import org.yaml.snakeyaml.Yaml
+import spock.lang.Specification
+
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+class FormattedOutputSpec extends Specification {
+    List<String> records(OutputFormatter formatter, List items) {
+        List<String> result = null
+        def delegate = Mock(CommandOutput) {
+            1 * outputStream(_) >> { Stream s -> result = s.collect(Collectors.toList()) }
+        }
+        new FormattedOutput(delegate, formatter).outputStream(items.stream())
+        result
+    }
+
+    def "json stream is an array with one element per line"() {
+        expect:
+        records(new JsonFormatter(new ToStringFormatter()), items) == expected
+
+        where:
+        items                  | expected
+        []                     | ['[]']
+        [[a: 'b']]             | ['[', '{"a":"b"}', ']']
+        [[a: 'b'], 'c', [1,2]] | ['[', '{"a":"b"},', '"c",', '[1,2]', ']']
+    }
+
+    def "yaml stream is a sequence of documents"() {
+        given:
+        def options = new DumperOptions()
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK)
+        def formatter = new YamlFormatter(new ToStringFormatter(), options)
+
+        when:
+        def result = records(formatter, [[a: 'b'], [c: 'd']])
+
+        then:
+        result == ['---\na: b', '---\nc: d']
+        new Yaml().loadAll(result.join('\n')).toList() == [[a: 'b'], [c: 'd']]
+    }
+
+    def "ndjson writes one record per line"() {
+        given:
+        def formatter = new NdjsonFormatter({ Optional.empty() })
+
+        expect:
+        records(formatter, [[a: 'b'], 'c', [1, 2]]) == ['{"a":"b"}', '"c"', '[1,2]']
+        formatter.format([[a: 'b'], [c: 'd']]) == '{"a":"b"}' + NiceFormatter.NL + '{"c":"d"}'
+    }
+
+    def "csv uses keys of the first record as header"() {
+        given:
+        def formatter = new CsvFormatter({ Optional.empty() })
+
+        expect:
+        records(formatter, items) == expected
+
+        where:
+        items                                                        | expected
+        [[id: 1, name: 'a'], [name: 'b, "c"', id: 2, x: 'y'], [:]]   | ['id,name', '1,a', '2,"b, ""c"""', ',']
+        [[id: 1, opts: [a: 'b']]]                                    | ['id,opts', '1,"{""a"":""b""}"']
+        ['a', 'b\nc']                                                | ['a', '"b\nc"']
+    }
+
+    def "csv formats a list with header"() {
+        expect:
+        new CsvFormatter({ Optional.empty() }).format([[a: 1, b: 2], [a: 3]]) ==
+                ['a,b', '1,2', '3,'].join(NiceFormatter.NL)
+    }
+
+    def "nice stream formats each item as a collection entry"() {
+        expect:
+        records(new NiceFormatter(new ToStringFormatter()), ['a', [b: 'c']]) == ['* a', '* b: c' + NiceFormatter.NL]
+    }
+
+    def "default stream formats all items as a list"() {
+        expect:
+        records(new PrefixFormatter('# '), ['a', 'b']) == ['# [a, b]']
+    }
+
+    def "unformatted output writes each item"() {
+        given:
+        def written = []
+        def output = new CommandOutput() {
+            void info(Object o) {}
+
+            void output(Object o) { written << o }
+
+            void error(Object o) {}
+
+            void warning(Object o) {}
+        }
+
+        when:
+        output.outputStream(Stream.of('a', 'b'))
+
+        then:
+        written == ['a', 'b']
+    }
+}
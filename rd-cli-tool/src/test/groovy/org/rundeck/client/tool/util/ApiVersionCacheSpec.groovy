@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util
+
+import org.rundeck.client.util.RdClientConfig
+import spock.lang.Specification
+
+class ApiVersionCacheSpec extends Specification {
+    File dir
+
+    def setup() {
+        dir = File.createTempDir()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    def "put and get by base url"() {
+        given:
+        def cache = new ApiVersionCache(new File(dir, 'test.properties'), 60000)
+
+        when:
+        cache.put('http://host:4440/', 24)
+
+        then:
+        cache.get('http://host:4440') == 24
+        cache.get('http://host:4440/') == 24
+        cache.get('http://other:4440') == null
+    }
+
+    def "expired entries are ignored"() {
+        given:
+        def file = new File(dir, 'test.properties')
+        file.text = "http\\://host\\:4440=${System.currentTimeMillis() - 2000} 24\n"
+        def cache = new ApiVersionCache(file, 1000)
+
+        expect:
+        cache.get('http://host:4440') == null
+    }
+
+    def "not enabled without ttl"() {
+        given:
+        def config = Mock(RdClientConfig)
+
+        expect:
+        ApiVersionCache.forConfig(config) == null
+    }
+
+    def "record stores in cache dir"() {
+        given:
+        def config = Mock(RdClientConfig) {
+            getLong(ApiVersionCache.RD_API_VERSION_CACHE_TTL, null) >> 3600L
+            getString(JobIdCache.RD_CACHE_DIR, null) >> dir.absolutePath
+        }
+
+        when:
+        ApiVersionCache.record(config, 'http://host:4440/', 24)
+
+        then:
+        new File(dir, ApiVersionCache.FILE_NAME).isFile()
+        ApiVersionCache.forConfig(config).get('http://host:4440') == 24
+    }
+}
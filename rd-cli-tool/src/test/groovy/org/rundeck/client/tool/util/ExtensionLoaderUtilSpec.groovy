@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util
+
+import org.rundeck.client.tool.Main
+import spock.lang.Specification
+
+class ExtensionLoaderUtilSpec extends Specification {
+    File dir
+
+    def setup() {
+        dir = File.createTempDir()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    def "scan lists extensions with command names from the command index resources"() {
+        when:
+        def entries = ExtensionLoaderUtil.index(getClass().classLoader, null)
+
+        then:
+        entries.find { it.className == 'org.rundeck.client.ext.acl.Acl' }?.names == ['acl']
+        !new File(dir, ExtensionLoaderUtil.INDEX_FILE).exists()
+    }
+
+    def "command index resources match the command annotations"() {
+        when:
+        def entries = ExtensionLoaderUtil.scan(getClass().classLoader)
+
+        then:
+        !entries.isEmpty()
+        entries.each {
+            assert it.names == ExtensionLoaderUtil.commandNames(it.load(getClass().classLoader))
+        }
+    }
+
+    def "built in command names match the command annotations"() {
+        expect:
+        Main.COMMANDS.each {
+            assert it.names == ExtensionLoaderUtil.commandNames(it.load(getClass().classLoader))
+        }
+    }
+
+    def "index is written to the extension dir and reused"() {
+        given:
+        def loader = getClass().classLoader
+        def file = new File(dir, ExtensionLoaderUtil.INDEX_FILE)
+
+        when:
+        def entries = ExtensionLoaderUtil.index(loader, dir)
+
+        then:
+        file.isFile()
+        entries.find { it.className == 'org.rundeck.client.ext.acl.Acl' }?.names == ['acl']
+
+        when: "index entry is changed"
+        file.text = file.text.replace('org.rundeck.client.ext.acl.Acl=acl', 'org.rundeck.client.ext.acl.Acl=acl2')
+        def reused = ExtensionLoaderUtil.index(loader, dir)
+
+        then:
+        reused*.className == entries*.className
+        reused.find { it.className == 'org.rundeck.client.ext.acl.Acl' }.names == ['acl2']
+    }
+
+    def "index is rebuilt when extension jars change"() {
+        given:
+        def loader = getClass().classLoader
+        def file = new File(dir, ExtensionLoaderUtil.INDEX_FILE)
+        ExtensionLoaderUtil.index(loader, dir)
+        file.text = file.text.replace('org.rundeck.client.ext.acl.Acl=acl', 'org.rundeck.client.ext.acl.Acl=acl2')
+
+        when:
+        new File(dir, 'ext.jar').bytes = new byte[0]
+        def entries = ExtensionLoaderUtil.index(loader, dir)
+
+        then:
+        entries.find { it.className == 'org.rundeck.client.ext.acl.Acl' }.names == ['acl']
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util
+
+import org.rundeck.client.api.model.ExecLog
+import org.rundeck.client.api.model.ExecOutput
+import spock.lang.Specification
+
+class FollowIntervalSpec extends Specification {
+    def "poll immediately when more output is available"() {
+        given:
+        def interval = new FollowInterval(500, 5000)
+        def output = new ExecOutput(
+                entries: (1..count).collect { new ExecLog('x') },
+                percentLoaded: percent
+        )
+
+        expect:
+        interval.nextDelay(output, 10) == expected
+
+        where:
+        count | percent | expected
+        10    | 100     | 0
+        5     | 50      | 0
+        5     | 100     | 500
+    }
+
+    def "back off while output is unmodified"() {
+        given:
+        def interval = new FollowInterval(500, 3000)
+        def output = new ExecOutput(entries: [], unmodified: true, percentLoaded: 100)
+
+        expect:
+        (1..5).collect { interval.nextDelay(output, 10) } == [500, 1000, 2000, 3000, 3000]
+    }
+
+    def "reset to minimum after receiving output"() {
+        given:
+        def interval = new FollowInterval(500, 3000)
+        def empty = new ExecOutput(entries: [], empty: true)
+        def some = new ExecOutput(entries: [new ExecLog('x')], percentLoaded: 100)
+
+        when:
+        interval.nextDelay(empty, 10)
+        interval.nextDelay(empty, 10)
+        def result = interval.nextDelay(some, 10)
+
+        then:
+        result == 500
+        interval.nextDelay(empty, 10) == 500
+    }
+
+    def "invalid interval"() {
+        when:
+        new FollowInterval(min, max)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        min  | max
+        -1   | 100
+        1000 | 500
+    }
+}
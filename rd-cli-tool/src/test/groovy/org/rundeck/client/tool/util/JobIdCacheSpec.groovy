@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 Rundeck, Inc. (http://rundeck.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.rundeck.client.tool.util
+
+import org.rundeck.client.api.model.JobItem
+import spock.lang.Specification
+
+class JobIdCacheSpec extends Specification {
+    File dir
+
+    def setup() {
+        dir = File.createTempDir()
+    }
+
+    def cleanup() {
+        dir.deleteDir()
+    }
+
+    def "put and get"() {
+        given:
+        def cache = new JobIdCache(new File(dir, 'test.properties'), 60000)
+
+        when:
+        cache.put('group/name', 'id1')
+
+        then:
+        cache.get('group/name') == 'id1'
+        cache.get('other') == null
+    }
+
+    def "expired entries are ignored"() {
+        given:
+        def file = new File(dir, 'test.properties')
+        file.text = "group/name=${System.currentTimeMillis() - 2000} id1\n"
+        def cache = new JobIdCache(file, 1000)
+
+        expect:
+        cache.get('group/name') == null
+    }
+
+    def "remove entry"() {
+        given:
+        def cache = new JobIdCache(new File(dir, 'test.properties'), 60000)
+        cache.put('group/name', 'id1')
+        cache.put('name2', 'id2')
+
+        when:
+        cache.remove('group/name')
+
+        then:
+        cache.get('group/name') == null
+        cache.get('name2') == 'id2'
+    }
+
+    def "replace all"() {
+        given:
+        def cache = new JobIdCache(new File(dir, 'test.properties'), 60000)
+        cache.put('old', 'id0')
+
+        when:
+        def count = cache.replaceAll(
+                [
+                        new JobItem(id: 'id1', group: 'a/b', name: 'job1'),
+                        new JobItem(id: 'id2', name: 'job2')
+                ]
+        )
+
+        then:
+        count == 2
+        cache.get('old') == null
+        cache.get('a/b/job1') == 'id1'
+        cache.get('job2') == 'id2'
+    }
+}
@@ -369,4 +369,61 @@ class FormAuthInterceptorSpec extends Specification {
         starturl                    | _
         'http://host/path/api/blah' | _
     }
+
+    def "stored session expired re-authenticates and repeats request"() {
+        given:
+        String baseurl = 'http://host/base/path'
+        String securityurl = 'http://host/base/path/j_security_path'
+        def sut = new FormAuthInterceptor(
+                'auser',
+                'apass',
+                baseurl,
+                securityurl,
+                'j_username',
+                'j_password',
+                '/login/error'
+        )
+        sut.setAuthorized(true)
+
+        def firstrequest = new Request.Builder().url('http://host/path/api/blah').build()
+        def loginrequest = new Request.Builder().url('http://host/base/path/user/login').build()
+        def chain = Mock(Interceptor.Chain)
+
+        def okresponse = new Response.Builder().with {
+            request firstrequest
+            protocol Protocol.HTTP_1_1
+            code 200
+            message 'ok'
+            body ResponseBody.create(MediaType.parse('text/html'), 'blah')
+            build()
+        }
+        def redirect = new Response.Builder().with {
+            request firstrequest
+            protocol Protocol.HTTP_1_1
+            code 302
+            message 'found'
+            header 'Location', '/base/path/user/login'
+            build()
+        }
+        def loginresponse = new Response.Builder().with {
+            request loginrequest
+            priorResponse redirect
+            protocol Protocol.HTTP_1_1
+            code 200
+            message 'ok'
+            body ResponseBody.create(MediaType.parse('text/html'), 'login')
+            build()
+        }
+
+        when:
+        def response = sut.intercept(chain)
+
+        then:
+        2 * chain.proceed(firstrequest) >>> [loginresponse, okresponse]
+        1 * chain.proceed({ req -> req.url().toString() == baseurl }) >> okresponse
+        1 * chain.proceed({ req -> req.url().toString() == securityurl }) >> okresponse
+        _ * chain.request() >> firstrequest
+        0 * chain._(*_)
+        response == okresponse
+    }
 }
@@ -59,4 +59,26 @@ class FormatSpec extends Specification {
         '%'   | ''  | '%b.c_d q r'     | [a: 'x', b: ['c_d': 'e']] | 'e q r'
 
     }
+
+    def "compiled template renders each row"() {
+        given:
+        def template = Format.compile('%id:%b.c %a', '%', '')
+        when:
+        def result = rows.collect { template.render(it) }
+        then:
+        result == expected
+        where:
+        rows                                                         | expected
+        [[id: 1, b: [c: 'd']], [id: 2, a: 'x'], [:]]                 | ['1:d ', '2: x', ': ']
+        [[id: '$1', b: [c: [e: 'f']]], [id: 3, b: 'z', a: [x: 'y']]] | ['$1:{e=f} ', '3: {x=y}']
+    }
+
+    def "formatter compiles template once"() {
+        given:
+        def formatter = Format.formatter('a ${b} ${c.d} e', '${', '}')
+        expect:
+        formatter.apply([b: 'x', c: [d: 'y']]) == 'a x y e'
+        formatter.apply([b: 'z']) == 'a z  e'
+        formatter.apply([:]) == 'a   e'
+    }
 }